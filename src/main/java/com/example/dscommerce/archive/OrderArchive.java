@@ -0,0 +1,63 @@
+package com.example.dscommerce.archive;
+
+import com.example.dscommerce.dto.ClientDTO;
+import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.dto.OrderItemDTO;
+import com.example.dscommerce.dto.PaymentDTO;
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.util.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class OrderArchive {
+
+    private static final String SELECT_ORDER = """
+            SELECT o.id, o.moment, o.status, o.total, u.id AS client_id, u.name AS client_name,
+                   p.order_id AS payment_id, p.moment AS payment_moment
+            FROM tb_order_archive o
+            INNER JOIN tb_user u ON u.id = o.client_id
+            LEFT JOIN tb_payment_archive p ON p.order_id = o.id
+            WHERE o.id = ?
+            """;
+    private static final String SELECT_ITEMS = """
+            SELECT i.product_id, p.name, i.price, i.quantity, p.img_url
+            FROM tb_order_item_archive i INNER JOIN tb_product p ON p.id = i.product_id
+            WHERE i.order_id = ?
+            ORDER BY i.product_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderArchive(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<OrderDTO> findById(Long id) {
+        List<OrderDTO> orders = jdbcTemplate.query(SELECT_ORDER, (rs, rowNum) -> {
+            long paymentId = rs.getLong("payment_id");
+            PaymentDTO payment = rs.wasNull() ? null : new PaymentDTO(paymentId, toInstant(rs.getTimestamp("payment_moment")));
+            return new OrderDTO(rs.getLong("id"), toInstant(rs.getTimestamp("moment")),
+                    OrderStatus.values()[rs.getInt("status")],
+                    new ClientDTO(rs.getLong("client_id"), rs.getString("client_name")), payment,
+                    Money.toMinorUnits(rs.getBigDecimal("total")));
+        }, id);
+        if (orders.isEmpty()) {
+            return Optional.empty();
+        }
+        OrderDTO order = orders.getFirst();
+        order.getItems().addAll(jdbcTemplate.query(SELECT_ITEMS, (rs, rowNum) -> new OrderItemDTO(
+                rs.getLong("product_id"), rs.getString("name"), Money.toMinorUnits(rs.getBigDecimal("price")),
+                rs.getInt("quantity"), rs.getString("img_url")), id));
+        return Optional.of(order);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
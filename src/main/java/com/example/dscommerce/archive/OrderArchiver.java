@@ -0,0 +1,117 @@
+package com.example.dscommerce.archive;
+
+import com.example.dscommerce.entities.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private static final String SELECT_CANDIDATES = """
+            SELECT id FROM tb_order
+            WHERE moment < :cutoff
+            AND ((status = :delivered AND rolled_up = TRUE) OR (status = :canceled AND rolled_up = FALSE))
+            ORDER BY id LIMIT :limit
+            """;
+    private static final String COPY_ORDERS = """
+            INSERT INTO tb_order_archive (id, moment, status, client_id, total, item_count, version)
+            SELECT id, moment, status, client_id, total, item_count, version FROM tb_order WHERE id IN (:ids)
+            """;
+    private static final String COPY_ITEMS = """
+            INSERT INTO tb_order_item_archive (order_id, product_id, quantity, price)
+            SELECT order_id, product_id, quantity, price FROM tb_order_item WHERE order_id IN (:ids)
+            """;
+    private static final String COPY_PAYMENTS = """
+            INSERT INTO tb_payment_archive (order_id, moment)
+            SELECT order_id, moment FROM tb_payment WHERE order_id IN (:ids)
+            """;
+    private static final String DELETE_PAYMENTS = "DELETE FROM tb_payment WHERE order_id IN (:ids)";
+    private static final String DELETE_ITEMS = "DELETE FROM tb_order_item WHERE order_id IN (:ids)";
+    private static final String DELETE_ORDERS = "DELETE FROM tb_order WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int chunkSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public OrderArchiver(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                         @Value("${orders.archive.min-age}") Duration minAge,
+                         @Value("${orders.archive.chunk-size}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.archive.interval}", initialDelayString = "${orders.archive.interval}")
+    public void archive() {
+        archiveOlderThan(Instant.now().minus(minAge));
+    }
+
+    public int archiveOlderThan(Instant cutoff) {
+        if (!lock.tryLock()) {
+            return 0;
+        }
+        int archived = 0;
+        try {
+            int moved;
+            while ((moved = archiveChunk(cutoff)) > 0) {
+                archived += moved;
+                if (moved < chunkSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Order archiving failed, retrying on next run", e);
+        } finally {
+            lock.unlock();
+        }
+        if (archived > 0) {
+            logger.info("Archived {} orders placed before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveChunk(Instant cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_CANDIDATES, new MapSqlParameterSource()
+                    .addValue("cutoff", Timestamp.from(cutoff))
+                    .addValue("delivered", OrderStatus.DELIVERED.ordinal())
+                    .addValue("canceled", OrderStatus.CANCELED.ordinal())
+                    .addValue("limit", chunkSize), Long.class);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+            jdbcTemplate.update(COPY_ORDERS, params);
+            jdbcTemplate.update(COPY_ITEMS, params);
+            jdbcTemplate.update(COPY_PAYMENTS, params);
+            jdbcTemplate.update(DELETE_PAYMENTS, params);
+            jdbcTemplate.update(DELETE_ITEMS, params);
+            int deleted = jdbcTemplate.update(DELETE_ORDERS, params);
+            if (deleted != ids.size()) {
+                status.setRollbackOnly();
+                return 0;
+            }
+            return ids.size();
+        });
+        return moved == null ? 0 : moved;
+    }
+}
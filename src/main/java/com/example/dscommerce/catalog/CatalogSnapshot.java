@@ -0,0 +1,165 @@
+package com.example.dscommerce.catalog;
+
+import com.example.dscommerce.dto.CategoryDTO;
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductMinDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class CatalogSnapshot {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(new long[0], new ProductDTO[0], new String[0], List.of());
+
+    private final long[] ids;
+    private final ProductDTO[] products;
+    private final String[] searchNames;
+    private final List<CategoryDTO> categories;
+
+    private CatalogSnapshot(long[] ids, ProductDTO[] products, String[] searchNames, List<CategoryDTO> categories) {
+        this.ids = ids;
+        this.products = products;
+        this.searchNames = searchNames;
+        this.categories = categories;
+    }
+
+    public static CatalogSnapshot of(Collection<ProductDTO> products, Collection<CategoryDTO> categories) {
+        List<CategoryDTO> sortedCategories = categories.stream().sorted(Comparator.comparing(CategoryDTO::getId)).toList();
+        Map<Long, ProductDTO> byId = new TreeMap<>();
+        products.forEach(product -> byId.put(product.getId(), product));
+        return EMPTY.withCategories(sortedCategories).apply(byId);
+    }
+
+    public ProductDTO findById(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? products[index] : null;
+    }
+
+    public Page<ProductMinDTO> findAll(String name, Pageable pageable) {
+        String filter = name == null ? "" : name.toUpperCase(Locale.ROOT);
+        Comparator<ProductDTO> comparator = comparator(pageable.getSort());
+        if (filter.isEmpty() && comparator == null) {
+            int from = (int) Math.min(pageable.getOffset(), products.length);
+            int to = (int) Math.min(from + (long) pageable.getPageSize(), products.length);
+            List<ProductMinDTO> content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(toMin(products[i]));
+            }
+            return new PageImpl<>(content, pageable, products.length);
+        }
+
+        List<ProductDTO> matches = new ArrayList<>();
+        for (int i = 0; i < products.length; i++) {
+            if (searchNames[i].contains(filter)) {
+                matches.add(products[i]);
+            }
+        }
+        if (comparator != null) {
+            matches.sort(comparator);
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = (int) Math.min(from + (long) pageable.getPageSize(), matches.size());
+        List<ProductMinDTO> content = matches.subList(from, to).stream().map(CatalogSnapshot::toMin).toList();
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+    public List<CategoryDTO> findAllCategories() {
+        return categories;
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    public CatalogSnapshot withCategories(Collection<CategoryDTO> newCategories) {
+        List<CategoryDTO> sortedCategories = newCategories.stream().sorted(Comparator.comparing(CategoryDTO::getId)).toList();
+        return new CatalogSnapshot(ids, products, searchNames, sortedCategories);
+    }
+
+    public CatalogSnapshot apply(Map<Long, ProductDTO> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        Map<Long, String> categoryNames = new HashMap<>();
+        categories.forEach(category -> categoryNames.put(category.getId(), category.getName()));
+        TreeMap<Long, ProductDTO> sortedChanges = new TreeMap<>(changes);
+
+        int capacity = ids.length + sortedChanges.size();
+        long[] newIds = new long[capacity];
+        ProductDTO[] newProducts = new ProductDTO[capacity];
+        String[] newSearchNames = new String[capacity];
+        int size = 0;
+        int i = 0;
+        for (Map.Entry<Long, ProductDTO> change : sortedChanges.entrySet()) {
+            long changedId = change.getKey();
+            while (i < ids.length && ids[i] < changedId) {
+                newIds[size] = ids[i];
+                newProducts[size] = products[i];
+                newSearchNames[size++] = searchNames[i++];
+            }
+            if (i < ids.length && ids[i] == changedId) {
+                i++;
+            }
+            if (change.getValue() != null) {
+                ProductDTO product = copy(change.getValue(), categoryNames);
+                newIds[size] = changedId;
+                newProducts[size] = product;
+                newSearchNames[size++] = searchName(product);
+            }
+        }
+        while (i < ids.length) {
+            newIds[size] = ids[i];
+            newProducts[size] = products[i];
+            newSearchNames[size++] = searchNames[i++];
+        }
+        return new CatalogSnapshot(Arrays.copyOf(newIds, size), Arrays.copyOf(newProducts, size),
+                Arrays.copyOf(newSearchNames, size), categories);
+    }
+
+    private static ProductDTO copy(ProductDTO source, Map<Long, String> categoryNames) {
+        ProductDTO product = new ProductDTO(source.getId(), source.getName(), source.getDescription(),
+                source.getPrice(), source.getImageUrl());
+        for (CategoryDTO category : source.getCategories()) {
+            String categoryName = category.getName() != null ? category.getName() : categoryNames.get(category.getId());
+            product.getCategories().add(new CategoryDTO(category.getId(), categoryName));
+        }
+        return product;
+    }
+
+    private static String searchName(ProductDTO product) {
+        return product.getName() == null ? "" : product.getName().toUpperCase(Locale.ROOT);
+    }
+
+    private static ProductMinDTO toMin(ProductDTO product) {
+        return new ProductMinDTO(product.getId(), product.getName(), product.getPrice(), product.getImageUrl());
+    }
+
+    private static Comparator<ProductDTO> comparator(Sort sort) {
+        Comparator<ProductDTO> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProductDTO> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(ProductDTO::getId);
+                case "name" -> Comparator.comparing(ProductDTO::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "price" -> Comparator.comparing(ProductDTO::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> null;
+            };
+            if (next == null) {
+                continue;
+            }
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.dscommerce.catalog;
+
+import com.example.dscommerce.dto.CategoryDTO;
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductMinDTO;
+import com.example.dscommerce.events.CatalogChangedEvent;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.projections.ProductExportProjection;
+import com.example.dscommerce.repositories.CategoryRepository;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.example.dscommerce.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Component
+public class CatalogSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final Object batchKey = new Object();
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+    private volatile boolean ready;
+    private Map<Long, ProductDTO> changesDuringReload;
+
+    public CatalogSnapshotStore(ProductRepository productRepository, CategoryRepository categoryRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${catalog.snapshot.enabled}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled && ready;
+    }
+
+    public ProductDTO findById(Long id) {
+        ProductDTO product = snapshot.findById(id);
+        if (product == null) {
+            throw new ResourceNotFoundException("Resource not found");
+        }
+        return product;
+    }
+
+    public Page<ProductMinDTO> findAll(String name, Pageable pageable) {
+        return snapshot.findAll(name, pageable);
+    }
+
+    public List<CategoryDTO> findAllCategories() {
+        return snapshot.findAllCategories();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            changesDuringReload = new HashMap<>();
+        }
+        CatalogSnapshot loaded = transactionTemplate.execute(status -> load());
+        synchronized (this) {
+            snapshot = loaded.apply(changesDuringReload);
+            changesDuringReload = null;
+        }
+        ready = true;
+        logger.info("Catalog snapshot loaded with {} products", loaded.size());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Long, ProductDTO> changes = new HashMap<>();
+            changes.put(event.getProductId(), event.getProduct());
+            apply(changes);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, ProductDTO> batch = (Map<Long, ProductDTO>) TransactionSynchronizationManager.getResource(batchKey);
+        if (batch == null) {
+            Map<Long, ProductDTO> newBatch = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(batchKey, newBatch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(batchKey);
+                    if (status == STATUS_COMMITTED) {
+                        apply(newBatch);
+                    }
+                }
+            });
+            batch = newBatch;
+        }
+        batch.put(event.getProductId(), event.getProduct());
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        reload();
+    }
+
+    private synchronized void apply(Map<Long, ProductDTO> changes) {
+        snapshot = snapshot.apply(changes);
+        if (changesDuringReload != null) {
+            changesDuringReload.putAll(changes);
+        }
+    }
+
+    private CatalogSnapshot load() {
+        List<CategoryDTO> categories = categoryRepository.findAll().stream().map(CategoryDTO::new).toList();
+        List<ProductDTO> products = new ArrayList<>();
+        try (Stream<ProductExportProjection> rows = productRepository.streamExportRows()) {
+            Iterator<ProductExportProjection> iterator = rows.iterator();
+            ProductDTO current = null;
+            while (iterator.hasNext()) {
+                ProductExportProjection row = iterator.next();
+                if (current == null || !current.getId().equals(row.getId())) {
+                    current = new ProductDTO(row.getId(), row.getName(), row.getDescription(), Money.of(row.getPrice()), row.getImgUrl());
+                    products.add(current);
+                }
+                if (row.getCategoryId() != null) {
+                    current.getCategories().add(new CategoryDTO(row.getCategoryId(), row.getCategoryName()));
+                }
+            }
+        }
+        return CatalogSnapshot.of(products, categories);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.dscommerce.checkout;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class OrderJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderJournal.class);
+
+    private static final String ACCEPTED = "A ";
+    private static final String DONE = "D ";
+    private static final long COMPACT_THRESHOLD_BYTES = 1 << 20;
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    private FileChannel channel;
+    private int pending;
+
+    OrderJournal(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    synchronized List<OrderRequest> open() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Map<UUID, OrderRequest> unfinished = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                try {
+                    if (line.startsWith(ACCEPTED)) {
+                        OrderRequest request = objectMapper.readValue(line.substring(ACCEPTED.length()), OrderRequest.class);
+                        unfinished.put(request.id(), request);
+                    } else if (line.startsWith(DONE)) {
+                        unfinished.remove(UUID.fromString(line.substring(DONE.length())));
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    logger.warn("Skipping unreadable order journal line", e);
+                }
+            }
+        }
+        List<OrderRequest> requests = new ArrayList<>(unfinished.values());
+        compact(requests);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        pending = requests.size();
+        return requests;
+    }
+
+    synchronized void append(OrderRequest request) throws IOException {
+        write(ACCEPTED + objectMapper.writeValueAsString(request));
+        channel.force(false);
+        pending++;
+    }
+
+    synchronized void markDone(UUID requestId) throws IOException {
+        write(DONE + requestId);
+        if (--pending == 0 && channel.size() > COMPACT_THRESHOLD_BYTES) {
+            channel.truncate(0);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void compact(List<OrderRequest> requests) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (OrderRequest request : requests) {
+                write(out, ACCEPTED + objectMapper.writeValueAsString(request));
+            }
+            out.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory();
+    }
+
+    private void forceDirectory() {
+        Path directory = path.toAbsolutePath().getParent();
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Order journal directory {} could not be synced", directory, e);
+        }
+    }
+
+    private void write(String line) throws IOException {
+        write(channel, line);
+    }
+
+    private static void write(FileChannel target, String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+}
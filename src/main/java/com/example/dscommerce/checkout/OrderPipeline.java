@@ -0,0 +1,270 @@
+package com.example.dscommerce.checkout;
+
+import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.dto.OrderItemDTO;
+import com.example.dscommerce.dto.OrderRequestStatusDTO;
+import com.example.dscommerce.inventory.StockReservation;
+import com.example.dscommerce.repositories.OrderRepository;
+import com.example.dscommerce.repositories.UserRepository;
+import com.example.dscommerce.services.AuthService;
+import com.example.dscommerce.services.OrderService;
+import com.example.dscommerce.services.UserService;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.example.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class OrderPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPipeline.class);
+
+    private static final long POLL_MILLIS = 200;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final OrderService orderService;
+    private final UserService userService;
+    private final AuthService authService;
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderJournal journal;
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int workers;
+    private final int batchSize;
+    private final Duration statusTtl;
+
+    private final Map<UUID, Status> statuses = new ConcurrentHashMap<>();
+    private final Object submitLock = new Object();
+    private final List<Thread> workerThreads = new ArrayList<>();
+
+    private BlockingQueue<OrderRequest> queue;
+    private volatile boolean running;
+
+    public OrderPipeline(OrderService orderService, UserService userService, AuthService authService,
+                         UserRepository userRepository, OrderRepository orderRepository,
+                         TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                         @Value("${orders.async.enabled}") boolean enabled,
+                         @Value("${orders.async.journal-path}") String journalPath,
+                         @Value("${orders.async.queue-capacity}") int queueCapacity,
+                         @Value("${orders.async.workers}") int workers,
+                         @Value("${orders.async.batch-size}") int batchSize,
+                         @Value("${orders.async.status-ttl}") Duration statusTtl) {
+        this.orderService = orderService;
+        this.userService = userService;
+        this.authService = authService;
+        this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.journal = new OrderJournal(Path.of(journalPath), objectMapper);
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.statusTtl = statusTtl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        List<OrderRequest> recovered = journal.open();
+        queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, recovered.size()));
+        for (OrderRequest request : recovered) {
+            statuses.put(request.id(), Status.queued(request.clientId()));
+            queue.add(request);
+        }
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            workerThreads.add(Thread.ofVirtual().name("order-worker-" + i).start(this::work));
+        }
+        logger.info("Order pipeline started with {} workers, {} recovered requests", workers, recovered.size());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+        for (Thread thread : workerThreads) {
+            thread.join(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
+        }
+        journal.close();
+    }
+
+    public OrderRequestStatusDTO submit(OrderDTO dto) {
+        if (!running) {
+            throw new ServiceUnavailableException("Asynchronous order placement is not available");
+        }
+        Long clientId = userService.authenticated().getId();
+        List<OrderRequest.Item> items = dto.getItems().stream()
+                .map(item -> new OrderRequest.Item(item.getProductId(), item.getQuantity()))
+                .toList();
+        OrderRequest request = new OrderRequest(UUID.randomUUID(), clientId, items);
+        synchronized (submitLock) {
+            if (queue.remainingCapacity() == 0) {
+                throw new ServiceUnavailableException("Order queue is full, retry later");
+            }
+            try {
+                journal.append(request);
+            } catch (IOException e) {
+                logger.error("Order request could not be journaled", e);
+                throw new ServiceUnavailableException("Order could not be queued, retry later");
+            }
+            statuses.put(request.id(), Status.queued(clientId));
+            queue.add(request);
+        }
+        return toDTO(request.id(), statuses.get(request.id()));
+    }
+
+    public OrderRequestStatusDTO findStatus(UUID id) {
+        Status status = statuses.get(id);
+        if (status == null) {
+            throw new ResourceNotFoundException("Resource not found");
+        }
+        authService.validateSelfOrAdmin(status.clientId());
+        return toDTO(id, status);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.async.status-eviction-interval}")
+    public void evictStatuses() {
+        Instant limit = Instant.now().minus(statusTtl);
+        statuses.values().removeIf(status -> status.state() != OrderRequestState.QUEUED && status.updatedAt().isBefore(limit));
+    }
+
+    private void work() {
+        List<OrderRequest> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                OrderRequest first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Order worker failed while processing a batch", e);
+                for (OrderRequest request : batch) {
+                    Status status = statuses.get(request.id());
+                    if (status != null && status.state() == OrderRequestState.QUEUED) {
+                        fail(request, e);
+                    }
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void process(List<OrderRequest> batch) {
+        List<Reserved> reserved = new ArrayList<>(batch.size());
+        for (OrderRequest request : batch) {
+            try {
+                Optional<Long> placed = orderRepository.findIdByRequestId(request.id());
+                if (placed.isPresent()) {
+                    complete(request, placed.get());
+                    continue;
+                }
+                OrderDTO dto = toOrderDTO(request);
+                reserved.add(new Reserved(request, dto, orderService.reserveStock(dto)));
+            } catch (RuntimeException e) {
+                fail(request, e);
+            }
+        }
+        if (reserved.isEmpty()) {
+            return;
+        }
+        List<Long> placed;
+        try {
+            placed = transactionTemplate.execute(status -> reserved.stream().map(this::place).toList());
+        } catch (RuntimeException e) {
+            reserved.forEach(item -> item.reservation().release());
+            if (reserved.size() == 1) {
+                fail(reserved.getFirst().request(), e);
+                return;
+            }
+            for (Reserved item : reserved) {
+                process(List.of(item.request()));
+            }
+            return;
+        }
+        for (int i = 0; i < reserved.size(); i++) {
+            complete(reserved.get(i).request(), placed.get(i));
+        }
+    }
+
+    private Long place(Reserved item) {
+        OrderRequest request = item.request();
+        return orderService.insert(userRepository.getReferenceById(request.clientId()), item.dto(), request.id(),
+                item.reservation()).getId();
+    }
+
+    private static OrderDTO toOrderDTO(OrderRequest request) {
+        OrderDTO dto = new OrderDTO();
+        for (OrderRequest.Item item : request.items()) {
+            dto.getItems().add(new OrderItemDTO(item.productId(), null, 0, item.quantity(), null));
+        }
+        return dto;
+    }
+
+    private void complete(OrderRequest request, Long orderId) {
+        finish(request, new Status(request.clientId(), OrderRequestState.COMPLETED, orderId, null, Instant.now()));
+    }
+
+    private void fail(OrderRequest request, RuntimeException e) {
+        logger.warn("Order request {} failed", request.id(), e);
+        finish(request, new Status(request.clientId(), OrderRequestState.FAILED, null, "Order could not be placed", Instant.now()));
+    }
+
+    private void finish(OrderRequest request, Status status) {
+        statuses.put(request.id(), status);
+        try {
+            journal.markDone(request.id());
+        } catch (IOException e) {
+            logger.error("Order request {} could not be marked done in the journal", request.id(), e);
+        }
+    }
+
+    private static OrderRequestStatusDTO toDTO(UUID id, Status status) {
+        return new OrderRequestStatusDTO(id, status.state(), status.orderId(), status.message());
+    }
+
+    private record Reserved(OrderRequest request, OrderDTO dto, StockReservation reservation) {
+    }
+
+    private record Status(Long clientId, OrderRequestState state, Long orderId, String message, Instant updatedAt) {
+        private static Status queued(Long clientId) {
+            return new Status(clientId, OrderRequestState.QUEUED, null, null, Instant.now());
+        }
+    }
+}
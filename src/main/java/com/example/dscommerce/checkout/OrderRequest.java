@@ -0,0 +1,10 @@
+package com.example.dscommerce.checkout;
+
+import java.util.List;
+import java.util.UUID;
+
+public record OrderRequest(UUID id, Long clientId, List<Item> items) {
+
+    public record Item(Long productId, Integer quantity) {
+    }
+}
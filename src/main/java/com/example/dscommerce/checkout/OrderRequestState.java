@@ -0,0 +1,8 @@
+package com.example.dscommerce.checkout;
+
+public enum OrderRequestState {
+
+    QUEUED,
+    COMPLETED,
+    FAILED;
+}
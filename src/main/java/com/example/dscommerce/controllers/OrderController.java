@@ -1,23 +1,94 @@
 package com.example.dscommerce.controllers;
 
+import com.example.dscommerce.checkout.OrderPipeline;
+import com.example.dscommerce.dto.BulkStatusUpdateResultDTO;
+import com.example.dscommerce.dto.CursorPageDTO;
 import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.dto.OrderEventStatsDTO;
+import com.example.dscommerce.dto.OrderRequestStatusDTO;
+import com.example.dscommerce.dto.OrderStatusBulkDTO;
+import com.example.dscommerce.dto.OrderStatusDTO;
+import com.example.dscommerce.dto.OrderSummaryDTO;
+import com.example.dscommerce.dto.PaymentDTO;
+import com.example.dscommerce.dto.SettlementResultDTO;
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.idempotency.IdempotencyService;
+import com.example.dscommerce.notifications.OrderEventStream;
 import com.example.dscommerce.services.OrderService;
+import com.example.dscommerce.services.PaymentSettlementService;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
+import java.util.UUID;
 
 @RestController
 @RequestMapping(value = "/orders")
 public class OrderController {
 
     private final OrderService service;
+    private final IdempotencyService idempotencyService;
+    private final OrderPipeline orderPipeline;
+    private final PaymentSettlementService paymentSettlementService;
+    private final OrderEventStream orderEventStream;
 
-    public OrderController(OrderService service) {
+    public OrderController(OrderService service, IdempotencyService idempotencyService, OrderPipeline orderPipeline,
+                           PaymentSettlementService paymentSettlementService, OrderEventStream orderEventStream) {
         this.service = service;
+        this.idempotencyService = idempotencyService;
+        this.orderPipeline = orderPipeline;
+        this.paymentSettlementService = paymentSettlementService;
+        this.orderEventStream = orderEventStream;
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_CLIENT', 'ROLE_ADMIN')")
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> findSummaries(
+            @RequestParam(value = "clientId", required = false) Long clientId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        CursorPageDTO<OrderSummaryDTO> dto = service.findSummaries(clientId, cursor, size);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/search")
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> search(
+            @RequestParam(value = "status", required = false) OrderStatus status,
+            @RequestParam(value = "clientId", required = false) Long clientId,
+            @RequestParam(value = "from", required = false) Instant from,
+            @RequestParam(value = "to", required = false) Instant to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        CursorPageDTO<OrderSummaryDTO> dto = service.search(status, clientId, from, to, cursor, size);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_CLIENT', 'ROLE_ADMIN')")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return orderEventStream.subscribeToClient();
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/events/stats")
+    public ResponseEntity<OrderEventStatsDTO> eventStats() {
+        OrderEventStatsDTO dto = orderEventStream.stats();
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_CLIENT', 'ROLE_ADMIN')")
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(@PathVariable Long id) {
+        return orderEventStream.subscribeToOrder(id);
     }
 
     @PreAuthorize("hasAnyRole('ROLE_CLIENT', 'ROLE_ADMIN')")
@@ -29,10 +100,55 @@ public class OrderController {
 
     @PreAuthorize("hasRole('ROLE_CLIENT')")
     @PostMapping
-    public ResponseEntity<OrderDTO> insert(@Valid @RequestBody OrderDTO dto) {
-        dto = service.insert(dto);
+    public ResponseEntity<OrderDTO> insert(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                           @Valid @RequestBody OrderDTO dto) {
+        dto = idempotencyKey == null ? service.insert(dto) : idempotencyService.execute(idempotencyKey, dto, service::insert);
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
                 .buildAndExpand(dto.getId()).toUri();
         return ResponseEntity.created(uri).body(dto);
     }
+
+    @PreAuthorize("hasRole('ROLE_CLIENT')")
+    @PostMapping(value = "/requests")
+    public ResponseEntity<OrderRequestStatusDTO> submit(@Valid @RequestBody OrderDTO dto) {
+        OrderRequestStatusDTO status = orderPipeline.submit(dto);
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+                .buildAndExpand(status.getId()).toUri();
+        return ResponseEntity.accepted().location(uri).body(status);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_CLIENT', 'ROLE_ADMIN')")
+    @GetMapping(value = "/requests/{id}")
+    public ResponseEntity<OrderRequestStatusDTO> findRequestStatus(@PathVariable UUID id) {
+        OrderRequestStatusDTO status = orderPipeline.findStatus(id);
+        return ResponseEntity.ok(status);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @PutMapping(value = "/{id}/status")
+    public ResponseEntity<OrderStatusDTO> updateStatus(@PathVariable Long id, @Valid @RequestBody OrderStatusDTO dto) {
+        dto = service.updateStatus(id, dto);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @PostMapping(value = "/{id}/payment")
+    public ResponseEntity<PaymentDTO> registerPayment(@PathVariable Long id, @RequestBody PaymentDTO dto) {
+        dto = service.registerPayment(id, dto);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @PostMapping(value = "/settlements", consumes = "text/csv")
+    public ResponseEntity<SettlementResultDTO> settle(InputStream body) throws IOException {
+        SettlementResultDTO result = paymentSettlementService.settle(body);
+        return ResponseEntity.ok(result);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @PutMapping(value = "/status")
+    public ResponseEntity<BulkStatusUpdateResultDTO> updateStatuses(@Valid @RequestBody OrderStatusBulkDTO dto) {
+        BulkStatusUpdateResultDTO result = service.updateStatuses(dto);
+        return ResponseEntity.ok(result);
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.dscommerce.controllers;
+
+import com.example.dscommerce.dto.OutboxStatsDTO;
+import com.example.dscommerce.outbox.OutboxRelay;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/outbox")
+public class OutboxController {
+
+    private final OutboxRelay outboxRelay;
+
+    public OutboxController(OutboxRelay outboxRelay) {
+        this.outboxRelay = outboxRelay;
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/stats")
+    public ResponseEntity<OutboxStatsDTO> stats() {
+        OutboxStatsDTO dto = outboxRelay.stats();
+        return ResponseEntity.ok(dto);
+    }
+}
@@ -1,26 +1,54 @@
 package com.example.dscommerce.controllers;
 
+import com.example.dscommerce.dto.BulkDeleteResultDTO;
+import com.example.dscommerce.dto.BulkUpdateResultDTO;
+import com.example.dscommerce.dto.CategoryMoveDTO;
+import com.example.dscommerce.dto.PriceAdjustmentDTO;
 import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductFacetsDTO;
+import com.example.dscommerce.dto.ProductImportResultDTO;
 import com.example.dscommerce.dto.ProductMinDTO;
+import com.example.dscommerce.dto.ProductSuggestionDTO;
+import com.example.dscommerce.dto.StockDTO;
+import com.example.dscommerce.inventory.StockService;
+import com.example.dscommerce.services.CatalogFormat;
+import com.example.dscommerce.services.ProductBulkService;
+import com.example.dscommerce.services.ProductExportService;
+import com.example.dscommerce.services.ProductImportService;
 import com.example.dscommerce.services.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping(value = "/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductBulkService productBulkService;
+    private final StockService stockService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService,
+                             ProductExportService productExportService, ProductBulkService productBulkService,
+                             StockService stockService) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productExportService = productExportService;
+        this.productBulkService = productBulkService;
+        this.stockService = stockService;
     }
 
     @GetMapping(value = "/{id}")
@@ -32,8 +60,34 @@ public class ProductController {
     @GetMapping
     public ResponseEntity<Page<ProductMinDTO>> findAll(
             @RequestParam(value = "name", defaultValue = "") String name,
+            @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
             Pageable pageable) {
-        Page<ProductMinDTO> dto = productService.findAll(name, pageable);
+        Page<ProductMinDTO> dto = productService.findAll(name, fuzzy, pageable);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/{id}/related")
+    public ResponseEntity<List<ProductMinDTO>> findRelated(
+            @PathVariable Long id,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<ProductMinDTO> dto = productService.findRelated(id, limit);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/facets")
+    public ResponseEntity<ProductFacetsDTO> facets(
+            @RequestParam(value = "name", defaultValue = "") String name,
+            @RequestParam(value = "categoryId", required = false) List<Long> categoryIds,
+            @RequestParam(value = "priceRange", required = false) Integer priceRange) {
+        ProductFacetsDTO dto = productService.facets(name, categoryIds, priceRange);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggest(
+            @RequestParam(value = "q", defaultValue = "") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<ProductSuggestionDTO> dto = productService.suggest(query, limit);
         return ResponseEntity.ok(dto);
     }
 
@@ -46,6 +100,54 @@ public class ProductController {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ProductImportResultDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        CatalogFormat format = CatalogFormat.fromMediaType(contentType);
+        ProductImportResultDTO dto = productImportService.importProducts(body, format);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        CatalogFormat catalogFormat = CatalogFormat.fromExtension(format);
+        StreamingResponseBody body = output -> productExportService.export(output, catalogFormat);
+        return ResponseEntity.ok()
+                .contentType(catalogFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + catalogFormat.getExtension())
+                .body(body);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @PutMapping(value = "/prices")
+    public ResponseEntity<BulkUpdateResultDTO> adjustPrices(@Valid @RequestBody PriceAdjustmentDTO dto) {
+        BulkUpdateResultDTO result = productBulkService.adjustPrices(dto);
+        return ResponseEntity.ok(result);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @PutMapping(value = "/categories")
+    public ResponseEntity<BulkUpdateResultDTO> moveToCategory(@Valid @RequestBody CategoryMoveDTO dto) {
+        BulkUpdateResultDTO result = productBulkService.moveToCategory(dto);
+        return ResponseEntity.ok(result);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/{id}/stock")
+    public ResponseEntity<StockDTO> findStock(@PathVariable Long id) {
+        StockDTO dto = stockService.findStock(id);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @PutMapping(value = "/{id}/stock")
+    public ResponseEntity<StockDTO> updateStock(@PathVariable Long id, @Valid @RequestBody StockDTO dto) {
+        dto = stockService.updateStock(id, dto);
+        return ResponseEntity.ok(dto);
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
     @PutMapping(value = "/{id}")
     public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto) {
@@ -53,6 +155,13 @@ public class ProductController {
         return ResponseEntity.ok(dto);
     }
 
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResultDTO> deleteAll(@RequestParam(value = "ids") List<Long> ids) {
+        BulkDeleteResultDTO result = productBulkService.delete(ids);
+        return ResponseEntity.ok(result);
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
     @DeleteMapping(value = "/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
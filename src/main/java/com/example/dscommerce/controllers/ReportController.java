@@ -0,0 +1,56 @@
+package com.example.dscommerce.controllers;
+
+import com.example.dscommerce.dto.CategorySalesDTO;
+import com.example.dscommerce.dto.DailySalesDTO;
+import com.example.dscommerce.dto.ProductSalesDTO;
+import com.example.dscommerce.services.SalesReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/reports/sales")
+public class ReportController {
+
+    private final SalesReportService service;
+
+    public ReportController(SalesReportService service) {
+        this.service = service;
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/daily")
+    public ResponseEntity<List<DailySalesDTO>> findDaily(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DailySalesDTO> list = service.findDaily(from, to);
+        return ResponseEntity.ok(list);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/products")
+    public ResponseEntity<List<ProductSalesDTO>> findTopProducts(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<ProductSalesDTO> list = service.findTopProducts(from, to, limit);
+        return ResponseEntity.ok(list);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/categories")
+    public ResponseEntity<List<CategorySalesDTO>> findTopCategories(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<CategorySalesDTO> list = service.findTopCategories(from, to, limit);
+        return ResponseEntity.ok(list);
+    }
+}
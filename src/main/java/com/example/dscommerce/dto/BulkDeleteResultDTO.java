@@ -0,0 +1,25 @@
+package com.example.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkDeleteResultDTO {
+    private int deleted;
+    private List<Long> referenced = new ArrayList<>();
+
+    public BulkDeleteResultDTO() {
+    }
+
+    public BulkDeleteResultDTO(int deleted, List<Long> referenced) {
+        this.deleted = deleted;
+        this.referenced = referenced;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public List<Long> getReferenced() {
+        return referenced;
+    }
+}
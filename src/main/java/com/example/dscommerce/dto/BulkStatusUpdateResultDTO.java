@@ -0,0 +1,25 @@
+package com.example.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkStatusUpdateResultDTO {
+    private int updated;
+    private List<Long> rejected = new ArrayList<>();
+
+    public BulkStatusUpdateResultDTO() {
+    }
+
+    public BulkStatusUpdateResultDTO(int updated, List<Long> rejected) {
+        this.updated = updated;
+        this.rejected = rejected;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public List<Long> getRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.dscommerce.dto;
+
+public class BulkUpdateResultDTO {
+    private int updated;
+
+    public BulkUpdateResultDTO() {
+    }
+
+    public BulkUpdateResultDTO(int updated) {
+        this.updated = updated;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.dscommerce.dto;
+
+public class CategoryFacetDTO {
+    private Long id;
+    private long count;
+
+    public CategoryFacetDTO() {
+    }
+
+    public CategoryFacetDTO(Long id, long count) {
+        this.id = id;
+        this.count = count;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
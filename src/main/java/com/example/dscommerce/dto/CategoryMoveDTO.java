@@ -0,0 +1,36 @@
+package com.example.dscommerce.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class CategoryMoveDTO {
+
+    @NotNull(message = "Field is required")
+    private Long minProductId;
+
+    @NotNull(message = "Field is required")
+    private Long maxProductId;
+
+    @NotNull(message = "Field is required")
+    private Long categoryId;
+
+    public CategoryMoveDTO() {
+    }
+
+    public CategoryMoveDTO(Long minProductId, Long maxProductId, Long categoryId) {
+        this.minProductId = minProductId;
+        this.maxProductId = maxProductId;
+        this.categoryId = categoryId;
+    }
+
+    public Long getMinProductId() {
+        return minProductId;
+    }
+
+    public Long getMaxProductId() {
+        return maxProductId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
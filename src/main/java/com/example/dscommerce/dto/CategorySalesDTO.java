@@ -0,0 +1,39 @@
+package com.example.dscommerce.dto;
+
+import com.example.dscommerce.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public class CategorySalesDTO {
+    private Long categoryId;
+    private String name;
+    private long units;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long revenue;
+
+    public CategorySalesDTO() {
+    }
+
+    public CategorySalesDTO(Long categoryId, String name, long units, long revenue) {
+        this.categoryId = categoryId;
+        this.name = name;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getRevenue() {
+        return revenue;
+    }
+}
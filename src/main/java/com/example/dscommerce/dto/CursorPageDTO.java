@@ -0,0 +1,25 @@
+package com.example.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CursorPageDTO<T> {
+    private List<T> content = new ArrayList<>();
+    private String nextCursor;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.dscommerce.dto;
+
+import com.example.dscommerce.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+
+public class DailySalesDTO {
+    private LocalDate date;
+    private long orders;
+    private long units;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long revenue;
+
+    public DailySalesDTO() {
+    }
+
+    public DailySalesDTO(LocalDate date, long orders, long units, long revenue) {
+        this.date = date;
+        this.orders = orders;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getRevenue() {
+        return revenue;
+    }
+}
@@ -2,6 +2,10 @@ package com.example.dscommerce.dto;
 
 import com.example.dscommerce.entities.Order;
 import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.util.MoneyDeserializer;
+import com.example.dscommerce.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.NotEmpty;
 
 import java.time.Instant;
@@ -16,6 +20,10 @@ public class OrderDTO {
     private ClientDTO client;
     private PaymentDTO payment;
 
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long total;
+
     @NotEmpty(message = "At least one product must be included in the order")
     private List<OrderItemDTO> items = new ArrayList<>();
 
@@ -30,6 +38,11 @@ public class OrderDTO {
         this.payment = payment;
     }
 
+    public OrderDTO(Long id, Instant moment, OrderStatus status, ClientDTO client, PaymentDTO payment, long total) {
+        this(id, moment, status, client, payment);
+        this.total = total;
+    }
+
     public OrderDTO(Order entity) {
         id = entity.getId();
         moment = entity.getMoment();
@@ -37,6 +50,7 @@ public class OrderDTO {
         client = new ClientDTO(entity.getClient());
         payment = entity.getPayment() != null ? new PaymentDTO(entity.getPayment()) : null;
         entity.getItems().forEach(x -> items.add(new OrderItemDTO(x)));
+        total = entity.getTotal();
     }
 
     public Long getId() {
@@ -63,11 +77,7 @@ public class OrderDTO {
         return items;
     }
 
-    public Double getTotal() {
-        double sum = 0.0;
-        for (OrderItemDTO item : items) {
-            sum += item.getSubTotal();
-        }
-        return sum;
+    public long getTotal() {
+        return total;
     }
 }
@@ -0,0 +1,34 @@
+package com.example.dscommerce.dto;
+
+public class OrderEventStatsDTO {
+    private long openConnections;
+    private long openedConnections;
+    private long eventsSent;
+    private long heartbeatsSent;
+
+    public OrderEventStatsDTO() {
+    }
+
+    public OrderEventStatsDTO(long openConnections, long openedConnections, long eventsSent, long heartbeatsSent) {
+        this.openConnections = openConnections;
+        this.openedConnections = openedConnections;
+        this.eventsSent = eventsSent;
+        this.heartbeatsSent = heartbeatsSent;
+    }
+
+    public long getOpenConnections() {
+        return openConnections;
+    }
+
+    public long getOpenedConnections() {
+        return openedConnections;
+    }
+
+    public long getEventsSent() {
+        return eventsSent;
+    }
+
+    public long getHeartbeatsSent() {
+        return heartbeatsSent;
+    }
+}
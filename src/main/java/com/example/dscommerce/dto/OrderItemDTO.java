@@ -1,18 +1,27 @@
 package com.example.dscommerce.dto;
 
 import com.example.dscommerce.entities.OrderItem;
+import com.example.dscommerce.util.Money;
+import com.example.dscommerce.util.MoneyDeserializer;
+import com.example.dscommerce.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 public class OrderItemDTO {
     private Long productId;
     private String name;
-    private Double price;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long price;
+
     private Integer quantity;
     private String imgUrl;
 
     public OrderItemDTO() {
     }
 
-    public OrderItemDTO(Long productId, String name, Double price, Integer quantity, String imgUrl) {
+    public OrderItemDTO(Long productId, String name, long price, Integer quantity, String imgUrl) {
         this.productId = productId;
         this.name = name;
         this.price = price;
@@ -40,7 +49,7 @@ public class OrderItemDTO {
         return name;
     }
 
-    public Double getPrice() {
+    public long getPrice() {
         return price;
     }
 
@@ -48,7 +57,8 @@ public class OrderItemDTO {
         return quantity;
     }
 
-    public Double getSubTotal() {
-        return price * quantity;
+    @JsonSerialize(using = MoneySerializer.class)
+    public long getSubTotal() {
+        return Money.multiply(price, quantity);
     }
 }
@@ -0,0 +1,38 @@
+package com.example.dscommerce.dto;
+
+import com.example.dscommerce.checkout.OrderRequestState;
+
+import java.util.UUID;
+
+public class OrderRequestStatusDTO {
+    private UUID id;
+    private OrderRequestState state;
+    private Long orderId;
+    private String message;
+
+    public OrderRequestStatusDTO() {
+    }
+
+    public OrderRequestStatusDTO(UUID id, OrderRequestState state, Long orderId, String message) {
+        this.id = id;
+        this.state = state;
+        this.orderId = orderId;
+        this.message = message;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public OrderRequestState getState() {
+        return state;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.dscommerce.dto;
+
+import com.example.dscommerce.entities.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderStatusBulkDTO {
+
+    @NotEmpty(message = "At least one order must be informed")
+    private List<Long> ids = new ArrayList<>();
+
+    @NotNull(message = "Field is required")
+    private OrderStatus status;
+
+    public OrderStatusBulkDTO() {
+    }
+
+    public OrderStatusBulkDTO(List<Long> ids, OrderStatus status) {
+        this.ids = ids;
+        this.status = status;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.dscommerce.dto;
+
+import com.example.dscommerce.entities.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+
+public class OrderStatusDTO {
+
+    private Long id;
+
+    @NotNull(message = "Field is required")
+    private OrderStatus status;
+
+    private Long version;
+
+    public OrderStatusDTO() {
+    }
+
+    public OrderStatusDTO(Long id, OrderStatus status, Long version) {
+        this.id = id;
+        this.status = status;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.dscommerce.dto;
+
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.projections.OrderSummaryProjection;
+import com.example.dscommerce.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.Instant;
+
+public class OrderSummaryDTO {
+    private Long id;
+    private Instant moment;
+    private OrderStatus status;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long total;
+    private Integer itemCount;
+
+    public OrderSummaryDTO() {
+    }
+
+    public OrderSummaryDTO(Long id, Instant moment, OrderStatus status, long total, Integer itemCount) {
+        this.id = id;
+        this.moment = moment;
+        this.status = status;
+        this.total = total;
+        this.itemCount = itemCount;
+    }
+
+    public OrderSummaryDTO(OrderSummaryProjection projection) {
+        id = projection.getId();
+        moment = projection.getMoment();
+        status = projection.getStatus();
+        total = projection.getTotal();
+        itemCount = projection.getItemCount();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getMoment() {
+        return moment;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+}
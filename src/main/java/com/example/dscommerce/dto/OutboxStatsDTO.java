@@ -0,0 +1,42 @@
+package com.example.dscommerce.dto;
+
+import java.time.Instant;
+
+public class OutboxStatsDTO {
+    private long pending;
+    private long oldestPendingAgeMillis;
+    private long delivered;
+    private long lastLagMillis;
+    private Instant lastDelivery;
+
+    public OutboxStatsDTO() {
+    }
+
+    public OutboxStatsDTO(long pending, long oldestPendingAgeMillis, long delivered, long lastLagMillis, Instant lastDelivery) {
+        this.pending = pending;
+        this.oldestPendingAgeMillis = oldestPendingAgeMillis;
+        this.delivered = delivered;
+        this.lastLagMillis = lastLagMillis;
+        this.lastDelivery = lastDelivery;
+    }
+
+    public long getPending() {
+        return pending;
+    }
+
+    public long getOldestPendingAgeMillis() {
+        return oldestPendingAgeMillis;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    public Instant getLastDelivery() {
+        return lastDelivery;
+    }
+}
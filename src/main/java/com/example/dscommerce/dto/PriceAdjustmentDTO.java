@@ -0,0 +1,32 @@
+package com.example.dscommerce.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+public class PriceAdjustmentDTO {
+
+    @NotNull(message = "Field is required")
+    private Long categoryId;
+
+    @NotNull(message = "Field is required")
+    @DecimalMin(value = "-100", inclusive = false, message = "Percentage must be greater than -100")
+    private BigDecimal percentage;
+
+    public PriceAdjustmentDTO() {
+    }
+
+    public PriceAdjustmentDTO(Long categoryId, BigDecimal percentage) {
+        this.categoryId = categoryId;
+        this.percentage = percentage;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public BigDecimal getPercentage() {
+        return percentage;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.dscommerce.dto;
+
+import com.example.dscommerce.util.Money;
+
+public class PriceRangeFacetDTO {
+    private Integer range;
+    private Money min;
+    private Money max;
+    private long count;
+
+    public PriceRangeFacetDTO() {
+    }
+
+    public PriceRangeFacetDTO(Integer range, Money min, Money max, long count) {
+        this.range = range;
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public Integer getRange() {
+        return range;
+    }
+
+    public Money getMin() {
+        return min;
+    }
+
+    public Money getMax() {
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
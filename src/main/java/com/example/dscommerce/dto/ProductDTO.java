@@ -1,6 +1,8 @@
 package com.example.dscommerce.dto;
 
 import com.example.dscommerce.entities.Product;
+import com.example.dscommerce.util.Money;
+import com.example.dscommerce.util.PositiveMoney;
 import jakarta.validation.constraints.*;
 
 import java.util.ArrayList;
@@ -18,8 +20,8 @@ public class ProductDTO {
     private String description;
 
     @NotNull(message = "Field is required")
-    @Positive(message = "Product price must be greater than 0")
-    private Double price;
+    @PositiveMoney(message = "Product price must be greater than 0")
+    private Money price;
 
     private String imageUrl;
 
@@ -29,7 +31,7 @@ public class ProductDTO {
     public ProductDTO() {
     }
 
-    public ProductDTO(Long id, String name, String description, Double price, String imageUrl) {
+    public ProductDTO(Long id, String name, String description, Money price, String imageUrl) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -41,7 +43,7 @@ public class ProductDTO {
         id = entity.getId();
         name = entity.getName();
         description = entity.getDescription();
-        price = entity.getPrice();
+        price = Money.of(entity.getPrice());
         imageUrl = entity.getImgUrl();
         categories = entity.getCategories().stream().map(CategoryDTO::new).toList();
     }
@@ -58,7 +60,7 @@ public class ProductDTO {
         return description;
     }
 
-    public Double getPrice() {
+    public Money getPrice() {
         return price;
     }
 
@@ -0,0 +1,30 @@
+package com.example.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductFacetsDTO {
+    private long total;
+
+    private List<CategoryFacetDTO> categories = new ArrayList<>();
+    private List<PriceRangeFacetDTO> priceRanges = new ArrayList<>();
+
+    public ProductFacetsDTO() {
+    }
+
+    public ProductFacetsDTO(long total) {
+        this.total = total;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public List<CategoryFacetDTO> getCategories() {
+        return categories;
+    }
+
+    public List<PriceRangeFacetDTO> getPriceRanges() {
+        return priceRanges;
+    }
+}
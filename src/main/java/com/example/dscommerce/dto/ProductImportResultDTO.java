@@ -0,0 +1,46 @@
+package com.example.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductImportResultDTO {
+    private long processed;
+    private long imported;
+    private long rejected;
+
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public ProductImportResultDTO() {
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void addProcessed() {
+        processed++;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addError(long line, String message, int maxErrors) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportErrorDTO(line, message));
+        }
+    }
+}
@@ -1,18 +1,19 @@
 package com.example.dscommerce.dto;
 
 import com.example.dscommerce.entities.Product;
+import com.example.dscommerce.util.Money;
 
 public class ProductMinDTO {
 
     private Long id;
     private String name;
-    private Double price;
+    private Money price;
     private String imageUrl;
 
     public ProductMinDTO() {
     }
 
-    public ProductMinDTO(Long id, String name, Double price, String imageUrl) {
+    public ProductMinDTO(Long id, String name, Money price, String imageUrl) {
         this.id = id;
         this.name = name;
         this.price = price;
@@ -22,7 +23,7 @@ public class ProductMinDTO {
     public ProductMinDTO(Product entity) {
         id = entity.getId();
         name = entity.getName();
-        price = entity.getPrice();
+        price = Money.of(entity.getPrice());
         imageUrl = entity.getImgUrl();
     }
 
@@ -34,7 +35,7 @@ public class ProductMinDTO {
         return name;
     }
 
-    public Double getPrice() {
+    public Money getPrice() {
         return price;
     }
 
@@ -0,0 +1,39 @@
+package com.example.dscommerce.dto;
+
+import com.example.dscommerce.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public class ProductSalesDTO {
+    private Long productId;
+    private String name;
+    private long units;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long revenue;
+
+    public ProductSalesDTO() {
+    }
+
+    public ProductSalesDTO(Long productId, String name, long units, long revenue) {
+        this.productId = productId;
+        this.name = name;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getRevenue() {
+        return revenue;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SettlementResultDTO {
+    private long processed;
+    private long settled;
+    private long rejected;
+
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public SettlementResultDTO() {
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getSettled() {
+        return settled;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void addProcessed() {
+        processed++;
+    }
+
+    public void addSettled(long count) {
+        settled += count;
+    }
+
+    public void addError(long line, String message, int maxErrors) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportErrorDTO(line, message));
+        }
+    }
+}
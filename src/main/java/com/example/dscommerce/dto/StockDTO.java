@@ -0,0 +1,27 @@
+package com.example.dscommerce.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+
+public class StockDTO {
+
+    private Long productId;
+
+    @PositiveOrZero(message = "Quantity must not be negative")
+    private Integer quantity;
+
+    public StockDTO() {
+    }
+
+    public StockDTO(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+}
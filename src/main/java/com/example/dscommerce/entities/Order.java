@@ -1,11 +1,14 @@
 package com.example.dscommerce.entities;
 
+import com.example.dscommerce.util.Money;
+import com.example.dscommerce.util.MoneyConverter;
 import jakarta.persistence.*;
 
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 @Entity
 @Table(name = "tb_order")
@@ -19,6 +22,15 @@ public class Order {
     private Instant moment;
     private OrderStatus status;
 
+    @Convert(converter = MoneyConverter.class)
+    private long total;
+    private int itemCount;
+
+    @Version
+    private Long version;
+
+    private UUID requestId;
+
     @ManyToOne
     @JoinColumn(name = "client_id")
     private User client;
@@ -64,6 +76,35 @@ public class Order {
         this.status = status;
     }
 
+    public long getTotal() {
+        return total;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void updateTotals() {
+        long sum = 0;
+        for (OrderItem item : items) {
+            sum = Math.addExact(sum, Money.multiply(item.getPrice(), item.getQuantity()));
+        }
+        total = sum;
+        itemCount = items.size();
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public UUID getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(UUID requestId) {
+        this.requestId = requestId;
+    }
+
     public User getClient() {
         return client;
     }
@@ -1,5 +1,7 @@
 package com.example.dscommerce.entities;
 
+import com.example.dscommerce.util.MoneyConverter;
+import jakarta.persistence.Convert;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
@@ -12,12 +14,14 @@ public class OrderItem {
     private OrderItemPK id = new OrderItemPK();
 
     private Integer quantity;
-    private Double price;
+
+    @Convert(converter = MoneyConverter.class)
+    private long price;
 
     public OrderItem() {
     }
 
-    public OrderItem(Order order, Product product, Integer quantity, Double price) {
+    public OrderItem(Order order, Product product, Integer quantity, long price) {
         this.id.setOrder(order);
         this.id.setProduct(product);
         this.quantity = quantity;
@@ -48,11 +52,11 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
-    public Double getPrice() {
+    public long getPrice() {
         return price;
     }
 
-    public void setPrice(Double price) {
+    public void setPrice(long price) {
         this.price = price;
     }
 
@@ -7,4 +7,13 @@ public enum OrderStatus {
     SHIPPED,
     DELIVERED,
     CANCELED;
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case WAITING_PAYMENT -> next == PAID || next == CANCELED;
+            case PAID -> next == SHIPPED || next == CANCELED;
+            case SHIPPED -> next == DELIVERED;
+            case DELIVERED, CANCELED -> false;
+        };
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.dscommerce.entities;
 
+import com.example.dscommerce.util.MoneyConverter;
 import jakarta.persistence.*;
 
 import java.util.HashSet;
@@ -18,7 +19,8 @@ public class Product {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    private double price;
+    @Convert(converter = MoneyConverter.class)
+    private long price;
     private String imgUrl;
 
     @ManyToMany
@@ -31,7 +33,7 @@ public class Product {
     public Product() {
     }
 
-    public Product(long id, String name, String description, double price, String imgUrl) {
+    public Product(long id, String name, String description, long price, String imgUrl) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -63,11 +65,11 @@ public class Product {
         this.description = description;
     }
 
-    public double getPrice() {
+    public long getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(long price) {
         this.price = price;
     }
 
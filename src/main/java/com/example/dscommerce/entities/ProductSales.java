@@ -0,0 +1,68 @@
+package com.example.dscommerce.entities;
+
+import com.example.dscommerce.util.MoneyConverter;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.util.Objects;
+
+@Entity
+@Table(name = "tb_product_sales")
+public class ProductSales {
+
+    @Id
+    private Long productId;
+
+    private Long quantity;
+
+    @Convert(converter = MoneyConverter.class)
+    private long revenue;
+
+    public ProductSales() {
+    }
+
+    public ProductSales(Long productId, Long quantity, long revenue) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(long revenue) {
+        this.revenue = revenue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductSales that = (ProductSales) o;
+        return Objects.equals(productId, that.productId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(productId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.dscommerce.events;
+
+import java.util.List;
+
+public class CatalogChangedEvent {
+
+    private final String reason;
+    private final List<Long> productIds;
+
+    public CatalogChangedEvent(String reason, List<Long> productIds) {
+        this.reason = reason;
+        this.productIds = productIds;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.dscommerce.events;
+
+import com.example.dscommerce.dto.OrderDTO;
+
+public class OrderPlacedEvent {
+
+    private final OrderDTO order;
+
+    public OrderPlacedEvent(OrderDTO order) {
+        this.order = order;
+    }
+
+    public OrderDTO getOrder() {
+        return order;
+    }
+}
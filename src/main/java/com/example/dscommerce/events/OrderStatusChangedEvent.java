@@ -0,0 +1,28 @@
+package com.example.dscommerce.events;
+
+import com.example.dscommerce.entities.OrderStatus;
+
+public class OrderStatusChangedEvent {
+
+    private final Long orderId;
+    private final Long clientId;
+    private final OrderStatus status;
+
+    public OrderStatusChangedEvent(Long orderId, Long clientId, OrderStatus status) {
+        this.orderId = orderId;
+        this.clientId = clientId;
+        this.status = status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.dscommerce.events;
+
+import com.example.dscommerce.dto.ProductDTO;
+
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final ProductDTO product;
+
+    public ProductChangedEvent(Long productId, ProductDTO product) {
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent saved(ProductDTO product) {
+        return new ProductChangedEvent(product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public ProductDTO getProduct() {
+        return product;
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
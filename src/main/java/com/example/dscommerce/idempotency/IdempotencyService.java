@@ -0,0 +1,119 @@
+package com.example.dscommerce.idempotency;
+
+import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.dto.OrderItemDTO;
+import com.example.dscommerce.events.OrderPlacedEvent;
+import com.example.dscommerce.services.UserService;
+import com.example.dscommerce.services.exceptions.BadRequestException;
+import com.example.dscommerce.services.exceptions.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final UserService userService;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+
+    private final ThreadLocal<Reservation> inFlight = new ThreadLocal<>();
+
+    public IdempotencyService(IdempotencyStore store, UserService userService,
+                              @Value("${orders.idempotency.ttl}") Duration ttl,
+                              @Value("${orders.idempotency.wait-timeout}") Duration waitTimeout) {
+        this.store = store;
+        this.userService = userService;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+    }
+
+    public OrderDTO execute(String idempotencyKey, OrderDTO request, Function<OrderDTO, OrderDTO> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Invalid Idempotency-Key");
+        }
+        String key = userService.authenticated().getId() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        Instant reservedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        String existingFingerprint = store.reserve(key, fingerprint, reservedAt, reservedAt.plus(ttl));
+        if (existingFingerprint == null) {
+            OrderDTO response;
+            inFlight.set(new Reservation(key, reservedAt));
+            try {
+                response = action.apply(request);
+                if (inFlight.get() != null) {
+                    store.complete(key, reservedAt, response);
+                }
+            } catch (RuntimeException e) {
+                store.release(key, reservedAt);
+                throw e;
+            } finally {
+                inFlight.remove();
+            }
+            return response;
+        }
+        if (!existingFingerprint.equals(fingerprint)) {
+            throw new ConflictException("Idempotency-Key was already used for a different request");
+        }
+        OrderDTO replayed = store.await(key, waitTimeout);
+        if (replayed == null) {
+            throw new ConflictException("A request with this Idempotency-Key is still in progress or failed, retry later");
+        }
+        return replayed;
+    }
+
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        Reservation reservation = inFlight.get();
+        if (reservation == null) {
+            return;
+        }
+        inFlight.remove();
+        if (!store.complete(reservation.key(), reservation.reservedAt(), event.getOrder())) {
+            throw new ConflictException("Idempotency-Key reservation was lost before the order was placed, retry later");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency.eviction-interval}")
+    public void evictExpired() {
+        int evicted = store.evictExpired(Instant.now());
+        if (evicted > 0) {
+            logger.debug("Evicted {} expired idempotency keys", evicted);
+        }
+    }
+
+    static String fingerprint(OrderDTO request) {
+        StringBuilder canonical = new StringBuilder();
+        request.getItems().stream()
+                .sorted(Comparator.comparing(OrderItemDTO::getProductId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(item -> canonical.append(item.getProductId()).append('x').append(item.getQuantity()).append(';'));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Reservation(String key, Instant reservedAt) {
+    }
+}
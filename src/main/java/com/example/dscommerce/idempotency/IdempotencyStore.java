@@ -0,0 +1,19 @@
+package com.example.dscommerce.idempotency;
+
+import com.example.dscommerce.dto.OrderDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public interface IdempotencyStore {
+
+    String reserve(String key, String fingerprint, Instant reservedAt, Instant expiresAt);
+
+    boolean complete(String key, Instant reservedAt, OrderDTO response);
+
+    void release(String key, Instant reservedAt);
+
+    OrderDTO await(String key, Duration timeout);
+
+    int evictExpired(Instant now);
+}
@@ -0,0 +1,94 @@
+package com.example.dscommerce.idempotency;
+
+import com.example.dscommerce.dto.OrderDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@ConditionalOnProperty(name = "orders.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public String reserve(String key, String fingerprint, Instant reservedAt, Instant expiresAt) {
+        Entry created = new Entry(fingerprint, reservedAt, expiresAt);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                return null;
+            }
+            if (!existing.isExpired(Instant.now())) {
+                return existing.fingerprint;
+            }
+            entries.remove(key, existing);
+        }
+    }
+
+    @Override
+    public boolean complete(String key, Instant reservedAt, OrderDTO response) {
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.reservedAt.equals(reservedAt)) {
+            return false;
+        }
+        entry.response.complete(response);
+        return true;
+    }
+
+    @Override
+    public void release(String key, Instant reservedAt) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.reservedAt.equals(reservedAt) && entries.remove(key, entry)) {
+            entry.response.complete(null);
+        }
+    }
+
+    @Override
+    public OrderDTO await(String key, Duration timeout) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return entry.response.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public int evictExpired(Instant now) {
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        return before - entries.size();
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final Instant reservedAt;
+        private final Instant expiresAt;
+        private final CompletableFuture<OrderDTO> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, Instant reservedAt, Instant expiresAt) {
+            this.fingerprint = fingerprint;
+            this.reservedAt = reservedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(Instant now) {
+            return expiresAt.isBefore(now);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.dscommerce.idempotency;
+
+import com.example.dscommerce.dto.OrderDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "orders.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final long MIN_POLL_MILLIS = 20;
+    private static final long MAX_POLL_MILLIS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration abandonAfter;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                @Value("${orders.idempotency.wait-timeout}") Duration abandonAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.abandonAfter = abandonAfter;
+    }
+
+    @Override
+    public String reserve(String key, String fingerprint, Instant reservedAt, Instant expiresAt) {
+        while (true) {
+            try {
+                jdbcTemplate.update("""
+                        INSERT INTO tb_idempotency_key (idempotency_key, fingerprint, reserved_at, expires_at) VALUES (?, ?, ?, ?)
+                        """, key, fingerprint, Timestamp.from(reservedAt), Timestamp.from(expiresAt));
+                return null;
+            } catch (DuplicateKeyException e) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList("""
+                        SELECT fingerprint, response, reserved_at, expires_at FROM tb_idempotency_key WHERE idempotency_key = ?
+                        """, key);
+                if (rows.isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> row = rows.getFirst();
+                Timestamp expires = (Timestamp) row.get("expires_at");
+                Timestamp reserved = (Timestamp) row.get("reserved_at");
+                Instant now = Instant.now();
+                if (expires.toInstant().isBefore(now)) {
+                    jdbcTemplate.update("DELETE FROM tb_idempotency_key WHERE idempotency_key = ? AND expires_at = ?", key, expires);
+                } else if (row.get("response") == null && reserved.toInstant().plus(abandonAfter).isBefore(now)) {
+                    jdbcTemplate.update("""
+                            DELETE FROM tb_idempotency_key WHERE idempotency_key = ? AND reserved_at = ? AND response IS NULL
+                            """, key, reserved);
+                } else {
+                    return (String) row.get("fingerprint");
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean complete(String key, Instant reservedAt, OrderDTO response) {
+        try {
+            return jdbcTemplate.update("""
+                    UPDATE tb_idempotency_key SET response = ? WHERE idempotency_key = ? AND reserved_at = ? AND response IS NULL
+                    """, objectMapper.writeValueAsString(response), key, Timestamp.from(reservedAt)) == 1;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order response could not be serialized", e);
+        }
+    }
+
+    @Override
+    public void release(String key, Instant reservedAt) {
+        jdbcTemplate.update("DELETE FROM tb_idempotency_key WHERE idempotency_key = ? AND reserved_at = ? AND response IS NULL",
+                key, Timestamp.from(reservedAt));
+    }
+
+    @Override
+    public OrderDTO await(String key, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long pollMillis = MIN_POLL_MILLIS;
+        while (true) {
+            List<String> rows = jdbcTemplate.queryForList(
+                    "SELECT response FROM tb_idempotency_key WHERE idempotency_key = ?", String.class, key);
+            if (rows.isEmpty()) {
+                return null;
+            }
+            if (rows.getFirst() != null) {
+                try {
+                    return objectMapper.readValue(rows.getFirst(), OrderDTO.class);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Stored order response could not be read", e);
+                }
+            }
+            if (System.nanoTime() + pollMillis * 1_000_000 > deadline) {
+                return null;
+            }
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    @Override
+    public int evictExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM tb_idempotency_key WHERE expires_at < ?", Timestamp.from(now));
+    }
+}
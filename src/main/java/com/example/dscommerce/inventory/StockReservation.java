@@ -0,0 +1,35 @@
+package com.example.dscommerce.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class StockReservation {
+
+    private final List<Line> lines = new ArrayList<>();
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final StockService stockService;
+
+    StockReservation(StockService stockService) {
+        this.stockService = stockService;
+    }
+
+    public static StockReservation empty() {
+        return new StockReservation(null);
+    }
+
+    void add(StockService.Entry entry, int quantity) {
+        lines.add(new Line(entry, quantity));
+    }
+
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            for (Line line : lines) {
+                stockService.release(line.entry(), line.quantity());
+            }
+        }
+    }
+
+    private record Line(StockService.Entry entry, int quantity) {
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.dscommerce.inventory;
+
+import com.example.dscommerce.dto.StockDTO;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.BadRequestException;
+import com.example.dscommerce.services.exceptions.ConflictException;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class StockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockService.class);
+
+    private static final String ADD_LEASED = "UPDATE tb_stock_lease SET quantity = quantity + ? WHERE product_id = ?";
+    private static final String INSERT_LEASED = "INSERT INTO tb_stock_lease (product_id, quantity, since) VALUES (?, ?, ?)";
+    private static final String SUBTRACT_LEASED = "UPDATE tb_stock_lease SET quantity = quantity - ? WHERE product_id = ?";
+    private static final String DELETE_LEASED = "DELETE FROM tb_stock_lease WHERE product_id = ?";
+    private static final String SELECT_LEASED = "SELECT product_id, quantity, since FROM tb_stock_lease";
+    private static final String SELECT_SOLD_SINCE = """
+            SELECT COALESCE(SUM(sold.quantity), 0) FROM (
+            SELECT tb_order_item.quantity FROM tb_order_item
+            INNER JOIN tb_order ON tb_order.id = tb_order_item.order_id
+            WHERE tb_order_item.product_id = ? AND tb_order.moment >= ?
+            UNION ALL
+            SELECT tb_order_item_archive.quantity FROM tb_order_item_archive
+            INNER JOIN tb_order_archive ON tb_order_archive.id = tb_order_item_archive.order_id
+            WHERE tb_order_item_archive.product_id = ? AND tb_order_archive.moment >= ?
+            ) sold
+            """;
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int leaseSize;
+    private final int stripes;
+    private final Duration leaseIdleTimeout;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public StockService(ProductRepository productRepository, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        @Value("${inventory.lease-size}") int leaseSize,
+                        @Value("${inventory.stripes}") int stripes,
+                        @Value("${inventory.lease-idle-timeout}") Duration leaseIdleTimeout) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseSize = leaseSize;
+        this.stripes = stripes;
+        this.leaseIdleTimeout = leaseIdleTimeout;
+    }
+
+    @PostConstruct
+    public void returnCrashedLeases() {
+        List<Lease> leases = jdbcTemplate.query(SELECT_LEASED, (rs, rowNum) ->
+                new Lease(rs.getLong("product_id"), rs.getLong("quantity"), rs.getTimestamp("since")));
+        for (Lease lease : leases) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Long sold = jdbcTemplate.queryForObject(SELECT_SOLD_SINCE, Long.class,
+                        lease.productId(), lease.since(), lease.productId(), lease.since());
+                long unsold = lease.quantity() - (sold == null ? 0 : sold);
+                if (unsold > 0) {
+                    productRepository.incrementStock(lease.productId(), unsold);
+                }
+                jdbcTemplate.update(DELETE_LEASED, lease.productId());
+                logger.info("Returned {} units of product {} leased before the last shutdown", Math.max(unsold, 0), lease.productId());
+            });
+        }
+    }
+
+    public StockReservation reserve(Map<Long, Integer> quantities) {
+        StockReservation reservation = new StockReservation(this);
+        try {
+            for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+                if (line.getValue() == null || line.getValue() <= 0) {
+                    throw new BadRequestException("Quantity must be greater than 0");
+                }
+                Entry entry = entry(line.getKey());
+                while (entry.tracked && !take(entry, line.getValue())) {
+                    entry = entry(line.getKey());
+                }
+                if (entry.tracked) {
+                    reservation.add(entry, line.getValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            reservation.release();
+            throw e;
+        }
+        return reservation;
+    }
+
+    public StockDTO findStock(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Resource not found");
+        }
+        Integer stored = transactionTemplate.execute(status -> productRepository.findStock(productId));
+        if (stored == null) {
+            return new StockDTO(productId, null);
+        }
+        Entry entry = entries.get(productId);
+        long leased = entry == null || !entry.tracked ? 0 : entry.leased.sum();
+        return new StockDTO(productId, (int) (stored + leased));
+    }
+
+    public StockDTO updateStock(Long productId, StockDTO dto) {
+        int[] updated = new int[1];
+        entries.compute(productId, (id, retired) -> {
+            if (retired != null) {
+                retire(retired, false);
+            }
+            updated[0] = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(DELETE_LEASED, productId);
+                return productRepository.updateStock(productId, dto.getQuantity());
+            });
+            return null;
+        });
+        if (updated[0] == 0) {
+            throw new ResourceNotFoundException("Resource not found");
+        }
+        return new StockDTO(productId, dto.getQuantity());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reconcile-interval}")
+    public void returnIdleLeases() {
+        long idleSince = System.nanoTime() - leaseIdleTimeout.toNanos();
+        for (Map.Entry<Long, Entry> item : entries.entrySet()) {
+            Entry entry = item.getValue();
+            if (entry.lastUsed - idleSince < 0 && entries.remove(item.getKey(), entry)) {
+                retire(entry, true);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void returnAllLeases() {
+        for (Long productId : entries.keySet()) {
+            Entry entry = entries.remove(productId);
+            if (entry != null) {
+                retire(entry, true);
+            }
+        }
+    }
+
+    void release(Entry entry, int quantity) {
+        entry.lock.lock();
+        try {
+            if (!entry.retired) {
+                entry.leased.add(quantity);
+                return;
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+        if (entry.returnToDatabase) {
+            returnLease(entry.productId, quantity);
+        }
+    }
+
+    private Entry entry(Long productId) {
+        Entry entry = entries.get(productId);
+        if (entry != null) {
+            return entry;
+        }
+        return entries.computeIfAbsent(productId, id -> {
+            Integer stock = transactionTemplate.execute(status -> productRepository.findStock(id));
+            return new Entry(id, stock != null, stripes);
+        });
+    }
+
+    private boolean take(Entry entry, int quantity) {
+        entry.lastUsed = System.nanoTime();
+        if (entry.leased.tryTake(quantity)) {
+            return true;
+        }
+        entry.lock.lock();
+        try {
+            if (entry.retired) {
+                return false;
+            }
+            if (entry.leased.tryTake(quantity)) {
+                return true;
+            }
+            long pooled = entry.leased.drain();
+            if (pooled < quantity) {
+                pooled += lease(entry.productId, quantity - pooled);
+            }
+            if (pooled < quantity) {
+                entry.leased.add(pooled);
+                throw new ConflictException("Insufficient stock for product " + entry.productId);
+            }
+            entry.leased.add(pooled - quantity);
+            return true;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private long lease(Long productId, long needed) {
+        int wanted = (int) Math.max(leaseSize, needed);
+        Integer leased = transactionTemplate.execute(status -> {
+            int chunk = wanted;
+            while (true) {
+                if (productRepository.decrementStock(productId, chunk) == 1) {
+                    if (jdbcTemplate.update(ADD_LEASED, chunk, productId) == 0) {
+                        jdbcTemplate.update(INSERT_LEASED, productId, chunk, Timestamp.from(Instant.now()));
+                    }
+                    return chunk;
+                }
+                Integer available = productRepository.findStock(productId);
+                if (available == null || available <= 0) {
+                    return 0;
+                }
+                chunk = Math.min(chunk, available);
+            }
+        });
+        return leased == null ? 0 : leased;
+    }
+
+    private void returnLease(Long productId, long quantity) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                productRepository.incrementStock(productId, quantity);
+                jdbcTemplate.update(SUBTRACT_LEASED, quantity, productId);
+            });
+        } catch (RuntimeException e) {
+            logger.error("Could not return {} leased units of product {} to stock", quantity, productId, e);
+        }
+    }
+
+    private void retire(Entry entry, boolean returnToDatabase) {
+        long remaining;
+        entry.lock.lock();
+        try {
+            entry.retired = true;
+            entry.returnToDatabase = returnToDatabase;
+            remaining = entry.leased.drain();
+        } finally {
+            entry.lock.unlock();
+        }
+        if (returnToDatabase && remaining > 0) {
+            returnLease(entry.productId, remaining);
+        }
+    }
+
+    private record Lease(Long productId, long quantity, Timestamp since) {
+    }
+
+    static final class Entry {
+        private final Long productId;
+        private final boolean tracked;
+        private final StripedCounter leased;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile boolean retired;
+        private volatile boolean returnToDatabase;
+        private volatile long lastUsed = System.nanoTime();
+
+        private Entry(Long productId, boolean tracked, int stripes) {
+            this.productId = productId;
+            this.tracked = tracked;
+            this.leased = new StripedCounter(stripes);
+        }
+    }
+}
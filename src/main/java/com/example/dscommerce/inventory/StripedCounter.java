@@ -0,0 +1,56 @@
+package com.example.dscommerce.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class StripedCounter {
+
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    StripedCounter(int stripes) {
+        this.stripes = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.cells = new AtomicLongArray(this.stripes * PADDING);
+    }
+
+    boolean tryTake(long amount) {
+        int start = probe();
+        for (int i = 0; i < stripes; i++) {
+            int cell = ((start + i) & (stripes - 1)) * PADDING;
+            long value = cells.get(cell);
+            while (value >= amount) {
+                if (cells.compareAndSet(cell, value, value - amount)) {
+                    return true;
+                }
+                value = cells.get(cell);
+            }
+        }
+        return false;
+    }
+
+    void add(long amount) {
+        cells.addAndGet(probe() * PADDING, amount);
+    }
+
+    long drain() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.getAndSet(i * PADDING, 0);
+        }
+        return sum;
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private int probe() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (stripes - 1);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.dscommerce.notifications;
+
+import com.example.dscommerce.dto.OrderEventStatsDTO;
+import com.example.dscommerce.dto.OrderStatusDTO;
+import com.example.dscommerce.events.OrderPlacedEvent;
+import com.example.dscommerce.events.OrderStatusChangedEvent;
+import com.example.dscommerce.projections.OrderStatusProjection;
+import com.example.dscommerce.repositories.OrderRepository;
+import com.example.dscommerce.services.AuthService;
+import com.example.dscommerce.services.UserService;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class OrderEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventStream.class);
+
+    private static final String STATUS_EVENT = "status";
+
+    private final OrderRepository orderRepository;
+    private final AuthService authService;
+    private final UserService userService;
+    private final long timeoutMillis;
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Set<Subscription>> byOrder = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscription>> byClient = new ConcurrentHashMap<>();
+    private final AtomicLong openConnections = new AtomicLong();
+    private final AtomicLong openedConnections = new AtomicLong();
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong heartbeatsSent = new AtomicLong();
+
+    public OrderEventStream(OrderRepository orderRepository, AuthService authService, UserService userService,
+                            @Value("${orders.events.timeout}") Duration timeout) {
+        this.orderRepository = orderRepository;
+        this.authService = authService;
+        this.userService = userService;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public SseEmitter subscribeToOrder(Long orderId) {
+        OrderStatusProjection current = orderRepository.findStatusById(orderId).orElseThrow(
+                () -> new ResourceNotFoundException("Resource not found"));
+        authService.validateSelfOrAdmin(current.getClientId());
+        Subscription subscription = register(byOrder, orderId);
+        subscription.send(STATUS_EVENT, new OrderStatusDTO(orderId, current.getStatus(), current.getVersion()));
+        return subscription.emitter;
+    }
+
+    public SseEmitter subscribeToClient() {
+        return register(byClient, userService.authenticated().getId()).emitter;
+    }
+
+    public OrderEventStatsDTO stats() {
+        return new OrderEventStatsDTO(openConnections.get(), openedConnections.get(), eventsSent.get(), heartbeatsSent.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        OrderStatusDTO payload = new OrderStatusDTO(event.getOrderId(), event.getStatus(), null);
+        broadcast(byOrder.get(event.getOrderId()), payload);
+        if (event.getClientId() != null) {
+            broadcast(byClient.get(event.getClientId()), payload);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        OrderStatusDTO payload = new OrderStatusDTO(event.getOrder().getId(), event.getOrder().getStatus(), null);
+        broadcast(byClient.get(event.getOrder().getClient().getId()), payload);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.events.heartbeat-interval}")
+    public void heartbeat() {
+        byOrder.values().forEach(subscriptions -> subscriptions.forEach(Subscription::heartbeat));
+        byClient.values().forEach(subscriptions -> subscriptions.forEach(Subscription::heartbeat));
+    }
+
+    @PreDestroy
+    public void close() {
+        byOrder.values().forEach(subscriptions -> subscriptions.forEach(subscription -> subscription.emitter.complete()));
+        byClient.values().forEach(subscriptions -> subscriptions.forEach(subscription -> subscription.emitter.complete()));
+        senders.shutdown();
+    }
+
+    private void broadcast(Set<Subscription> subscriptions, OrderStatusDTO payload) {
+        if (subscriptions != null) {
+            subscriptions.forEach(subscription -> subscription.send(STATUS_EVENT, payload));
+        }
+    }
+
+    private Subscription register(Map<Long, Set<Subscription>> registry, Long key) {
+        Subscription subscription = new Subscription(new SseEmitter(timeoutMillis), registry, key);
+        registry.compute(key, (k, subscriptions) -> {
+            Set<Subscription> result = subscriptions == null ? ConcurrentHashMap.newKeySet() : subscriptions;
+            result.add(subscription);
+            return result;
+        });
+        openConnections.incrementAndGet();
+        openedConnections.incrementAndGet();
+        subscription.emitter.onCompletion(subscription::unregister);
+        subscription.emitter.onTimeout(subscription::unregister);
+        subscription.emitter.onError(e -> subscription.unregister());
+        return subscription;
+    }
+
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final Map<Long, Set<Subscription>> registry;
+        private final Long key;
+        private final Queue<Outgoing> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(SseEmitter emitter, Map<Long, Set<Subscription>> registry, Long key) {
+            this.emitter = emitter;
+            this.registry = registry;
+            this.key = key;
+        }
+
+        private void send(String name, Object data) {
+            enqueue(new Outgoing(SseEmitter.event().name(name).data(data), false));
+        }
+
+        private void heartbeat() {
+            enqueue(new Outgoing(SseEmitter.event().comment("heartbeat"), true));
+        }
+
+        private void enqueue(Outgoing outgoing) {
+            if (closed.get()) {
+                return;
+            }
+            pending.add(outgoing);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Outgoing outgoing;
+                while ((outgoing = pending.poll()) != null) {
+                    try {
+                        emitter.send(outgoing.event());
+                        (outgoing.heartbeat() ? heartbeatsSent : eventsSent).incrementAndGet();
+                    } catch (IOException | IllegalStateException e) {
+                        logger.debug("Order event stream closed while sending", e);
+                        pending.clear();
+                        unregister();
+                    }
+                }
+                draining.set(false);
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void unregister() {
+            if (closed.compareAndSet(false, true)) {
+                registry.computeIfPresent(key, (k, subscriptions) -> {
+                    subscriptions.remove(this);
+                    return subscriptions.isEmpty() ? null : subscriptions;
+                });
+                openConnections.decrementAndGet();
+            }
+        }
+    }
+
+    private record Outgoing(SseEmitter.SseEventBuilder event, boolean heartbeat) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.dscommerce.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType,
+                            @JsonRawValue String payload, Instant createdAt) {
+}
@@ -0,0 +1,98 @@
+package com.example.dscommerce.outbox;
+
+import com.example.dscommerce.dto.OutboxStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final Duration lagWarning;
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicLong delivered = new AtomicLong();
+    private volatile Duration lastLag = Duration.ZERO;
+    private volatile Instant lastDelivery;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, OutboxSink sink,
+                       @Value("${outbox.relay.batch-size}") int batchSize,
+                       @Value("${outbox.relay.lag-warning}") Duration lagWarning) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.lagWarning = lagWarning;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval}")
+    public void drain() {
+        if (!drainLock.tryLock()) {
+            return;
+        }
+        try {
+            List<OutboxMessage> batch;
+            do {
+                batch = nextBatch();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                sink.publish(batch);
+                jdbcTemplate.batchUpdate("DELETE FROM tb_outbox WHERE id = ?", batch, batch.size(),
+                        (ps, message) -> ps.setLong(1, message.id()));
+                recordDelivery(batch);
+            } while (batch.size() == batchSize);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Outbox relay failed, undelivered messages will be retried", e);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public OutboxStatsDTO stats() {
+        List<OutboxStatsDTO> rows = jdbcTemplate.query("SELECT COUNT(*), MIN(created_at) FROM tb_outbox",
+                (rs, rowNum) -> {
+                    Timestamp oldest = rs.getTimestamp(2);
+                    long oldestAge = oldest == null ? 0 : Duration.between(oldest.toInstant(), Instant.now()).toMillis();
+                    return new OutboxStatsDTO(rs.getLong(1), oldestAge, delivered.get(), lastLag.toMillis(), lastDelivery);
+                });
+        return rows.getFirst();
+    }
+
+    private List<OutboxMessage> nextBatch() {
+        return jdbcTemplate.query("""
+                        SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at
+                        FROM tb_outbox ORDER BY id LIMIT ?
+                        """,
+                (rs, rowNum) -> new OutboxMessage(rs.getLong("id"), rs.getString("aggregate_type"),
+                        rs.getObject("aggregate_id", Long.class), rs.getString("event_type"),
+                        rs.getString("payload"), rs.getTimestamp("created_at").toInstant()),
+                batchSize);
+    }
+
+    private void recordDelivery(List<OutboxMessage> batch) {
+        Instant now = Instant.now();
+        Duration lag = Duration.between(batch.getFirst().createdAt(), now);
+        delivered.addAndGet(batch.size());
+        lastLag = lag;
+        lastDelivery = now;
+        if (lag.compareTo(lagWarning) > 0) {
+            logger.warn("Outbox relay is lagging: delivered {} messages, oldest was {} ms old", batch.size(), lag.toMillis());
+        }
+    }
+}
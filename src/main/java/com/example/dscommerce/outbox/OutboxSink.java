@@ -0,0 +1,9 @@
+package com.example.dscommerce.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws IOException;
+}
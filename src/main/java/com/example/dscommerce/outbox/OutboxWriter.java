@@ -0,0 +1,122 @@
+package com.example.dscommerce.outbox;
+
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.entities.Product;
+import com.example.dscommerce.events.CatalogChangedEvent;
+import com.example.dscommerce.events.OrderPlacedEvent;
+import com.example.dscommerce.events.OrderStatusChangedEvent;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class OutboxWriter {
+
+    private static final int CATALOG_CHUNK_SIZE = 1000;
+
+    private static final String INSERT_MESSAGE = """
+            INSERT INTO tb_outbox (aggregate_type, aggregate_id, event_type, payload, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductRepository productRepository;
+
+    private final Object batchKey = new Object();
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ProductRepository productRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.productRepository = productRepository;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            append("product", event.getProductId(), "ProductDeleted", Map.of("id", event.getProductId()));
+        } else {
+            append("product", event.getProductId(), "ProductSaved", event.getProduct());
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        List<Long> ids = event.getProductIds();
+        for (int from = 0; from < ids.size(); from += CATALOG_CHUNK_SIZE) {
+            for (Product product : productRepository.searchWithCategories(ids.subList(from, Math.min(from + CATALOG_CHUNK_SIZE, ids.size())))) {
+                append("product", product.getId(), "ProductSaved", new ProductDTO(product));
+            }
+        }
+    }
+
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        append("order", event.getOrder().getId(), "OrderPlaced", event.getOrder());
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        append("order", event.getOrderId(), "OrderStatusChanged",
+                Map.of("id", event.getOrderId(), "status", event.getStatus()));
+    }
+
+    private void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        OutboxMessage message;
+        try {
+            message = new OutboxMessage(null, aggregateType, aggregateId, eventType,
+                    objectMapper.writeValueAsString(payload), Instant.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox payload could not be serialized", e);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(message));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<OutboxMessage> batch = (List<OutboxMessage>) TransactionSynchronizationManager.getResource(batchKey);
+        if (batch == null) {
+            List<OutboxMessage> newBatch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(batchKey, newBatch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(batchKey);
+                    write(newBatch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(batchKey);
+                }
+            });
+            batch = newBatch;
+        }
+        batch.add(message);
+    }
+
+    private void write(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, messages, messages.size(), (ps, message) -> {
+            ps.setString(1, message.aggregateType());
+            ps.setObject(2, message.aggregateId());
+            ps.setString(3, message.eventType());
+            ps.setString(4, message.payload());
+            ps.setTimestamp(5, Timestamp.from(message.createdAt()));
+        });
+    }
+}
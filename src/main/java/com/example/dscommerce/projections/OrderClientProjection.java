@@ -0,0 +1,7 @@
+package com.example.dscommerce.projections;
+
+public interface OrderClientProjection {
+
+	Long getId();
+	Long getClientId();
+}
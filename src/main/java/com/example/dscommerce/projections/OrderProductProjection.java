@@ -0,0 +1,7 @@
+package com.example.dscommerce.projections;
+
+public interface OrderProductProjection {
+
+	Long getOrderId();
+	Long getProductId();
+}
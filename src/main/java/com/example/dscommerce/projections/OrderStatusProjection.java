@@ -0,0 +1,10 @@
+package com.example.dscommerce.projections;
+
+import com.example.dscommerce.entities.OrderStatus;
+
+public interface OrderStatusProjection {
+
+	OrderStatus getStatus();
+	Long getVersion();
+	Long getClientId();
+}
@@ -0,0 +1,14 @@
+package com.example.dscommerce.projections;
+
+import com.example.dscommerce.entities.OrderStatus;
+
+import java.time.Instant;
+
+public interface OrderSummaryProjection {
+
+	Long getId();
+	Instant getMoment();
+	OrderStatus getStatus();
+	Long getTotal();
+	Integer getItemCount();
+}
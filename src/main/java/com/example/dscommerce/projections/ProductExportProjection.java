@@ -0,0 +1,12 @@
+package com.example.dscommerce.projections;
+
+public interface ProductExportProjection {
+
+	Long getId();
+	String getName();
+	String getDescription();
+	Long getPrice();
+	String getImgUrl();
+	Long getCategoryId();
+	String getCategoryName();
+}
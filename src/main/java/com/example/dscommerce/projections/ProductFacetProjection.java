@@ -0,0 +1,10 @@
+package com.example.dscommerce.projections;
+
+import java.math.BigDecimal;
+
+public interface ProductFacetProjection {
+
+	Long getId();
+	BigDecimal getPrice();
+	Long getCategoryId();
+}
@@ -0,0 +1,7 @@
+package com.example.dscommerce.projections;
+
+public interface ProductQuantityProjection {
+
+	Long getProductId();
+	Long getQuantity();
+}
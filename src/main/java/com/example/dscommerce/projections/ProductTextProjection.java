@@ -0,0 +1,8 @@
+package com.example.dscommerce.projections;
+
+public interface ProductTextProjection {
+
+	Long getId();
+	String getName();
+	String getDescription();
+}
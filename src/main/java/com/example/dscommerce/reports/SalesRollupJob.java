@@ -0,0 +1,177 @@
+package com.example.dscommerce.reports;
+
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.events.OrderPlacedEvent;
+import com.example.dscommerce.events.OrderStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class SalesRollupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupJob.class);
+
+    private static final String SELECT_PENDING = """
+            SELECT id FROM tb_order WHERE rolled_up = FALSE AND status <> :canceled ORDER BY id LIMIT :limit
+            """;
+    private static final String SELECT_CANCELED = """
+            SELECT id FROM tb_order WHERE rolled_up = TRUE AND status = :canceled ORDER BY id LIMIT :limit
+            """;
+    private static final String MARK = """
+            UPDATE tb_order SET rolled_up = :rolledUp WHERE id IN (:ids) AND rolled_up = :previous
+            """;
+    private static final String MERGE_DAILY = """
+            MERGE INTO tb_sales_daily target
+            USING (SELECT CAST(o.moment AS DATE) AS sales_date, COUNT(DISTINCT o.id) AS orders,
+                   SUM(i.quantity) AS units, SUM(i.quantity * i.price) AS revenue
+                   FROM tb_order o INNER JOIN tb_order_item i ON i.order_id = o.id
+                   WHERE o.id IN (:ids)
+                   GROUP BY CAST(o.moment AS DATE)) source
+            ON (target.sales_date = source.sales_date)
+            WHEN MATCHED THEN UPDATE SET orders = target.orders + :sign * source.orders,
+                units = target.units + :sign * source.units, revenue = target.revenue + :sign * source.revenue
+            WHEN NOT MATCHED THEN INSERT (sales_date, orders, units, revenue)
+                VALUES (source.sales_date, :sign * source.orders, :sign * source.units, :sign * source.revenue)
+            """;
+    private static final String MERGE_PRODUCT = """
+            MERGE INTO tb_sales_daily_product target
+            USING (SELECT CAST(o.moment AS DATE) AS sales_date, i.product_id AS product_id,
+                   SUM(i.quantity) AS units, SUM(i.quantity * i.price) AS revenue
+                   FROM tb_order o INNER JOIN tb_order_item i ON i.order_id = o.id
+                   WHERE o.id IN (:ids)
+                   GROUP BY CAST(o.moment AS DATE), i.product_id) source
+            ON (target.sales_date = source.sales_date AND target.product_id = source.product_id)
+            WHEN MATCHED THEN UPDATE SET units = target.units + :sign * source.units,
+                revenue = target.revenue + :sign * source.revenue
+            WHEN NOT MATCHED THEN INSERT (sales_date, product_id, units, revenue)
+                VALUES (source.sales_date, source.product_id, :sign * source.units, :sign * source.revenue)
+            """;
+    private static final String SNAPSHOT_CATEGORY = """
+            INSERT INTO tb_sales_order_category (order_id, category_id, sales_date, units, revenue)
+            SELECT o.id, pc.category_id, CAST(o.moment AS DATE), SUM(i.quantity), SUM(i.quantity * i.price)
+            FROM tb_order o INNER JOIN tb_order_item i ON i.order_id = o.id
+            INNER JOIN tb_product_category pc ON pc.product_id = i.product_id
+            WHERE o.id IN (:ids)
+            GROUP BY o.id, pc.category_id, CAST(o.moment AS DATE)
+            """;
+    private static final String MERGE_CATEGORY = """
+            MERGE INTO tb_sales_daily_category target
+            USING (SELECT sales_date, category_id, SUM(units) AS units, SUM(revenue) AS revenue
+                   FROM tb_sales_order_category
+                   WHERE order_id IN (:ids)
+                   GROUP BY sales_date, category_id) source
+            ON (target.sales_date = source.sales_date AND target.category_id = source.category_id)
+            WHEN MATCHED THEN UPDATE SET units = target.units + :sign * source.units,
+                revenue = target.revenue + :sign * source.revenue
+            WHEN NOT MATCHED THEN INSERT (sales_date, category_id, units, revenue)
+                VALUES (source.sales_date, source.category_id, :sign * source.units, :sign * source.revenue)
+            """;
+    private static final String DELETE_CATEGORY_SNAPSHOT =
+            "DELETE FROM tb_sales_order_category WHERE order_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    public SalesRollupJob(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          @Value("${reports.rollup.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        request();
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getStatus() == OrderStatus.CANCELED) {
+            request();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reports.rollup.interval}")
+    public void rollUp() {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            do {
+                requested.set(false);
+                int added = 0;
+                int subtracted = 0;
+                int rows;
+                while ((rows = pass(false)) > 0) {
+                    added += rows;
+                }
+                while ((rows = pass(true)) > 0) {
+                    subtracted += rows;
+                }
+                if (added > 0 || subtracted > 0) {
+                    logger.debug("Sales rollups updated: {} orders added, {} canceled orders subtracted", added, subtracted);
+                }
+            } while (requested.get());
+        } catch (DataAccessException e) {
+            logger.warn("Sales rollup pass failed, retrying on next run", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void request() {
+        requested.set(true);
+        rollUp();
+    }
+
+    private int pass(boolean canceled) {
+        Integer rolled = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(canceled ? SELECT_CANCELED : SELECT_PENDING,
+                    new MapSqlParameterSource("canceled", OrderStatus.CANCELED.ordinal()).addValue("limit", batchSize),
+                    Long.class);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            int marked = jdbcTemplate.update(MARK, new MapSqlParameterSource("ids", ids)
+                    .addValue("rolledUp", !canceled).addValue("previous", canceled));
+            if (marked != ids.size()) {
+                status.setRollbackOnly();
+                return 0;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("sign", canceled ? -1 : 1);
+            jdbcTemplate.update(MERGE_DAILY, params);
+            jdbcTemplate.update(MERGE_PRODUCT, params);
+            if (canceled) {
+                jdbcTemplate.update(MERGE_CATEGORY, params);
+                jdbcTemplate.update(DELETE_CATEGORY_SNAPSHOT, params);
+            } else {
+                jdbcTemplate.update(SNAPSHOT_CATEGORY, params);
+                jdbcTemplate.update(MERGE_CATEGORY, params);
+            }
+            return ids.size();
+        });
+        return rolled == null ? 0 : rolled;
+    }
+}
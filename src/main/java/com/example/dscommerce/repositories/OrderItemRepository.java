@@ -2,7 +2,42 @@ package com.example.dscommerce.repositories;
 
 import com.example.dscommerce.entities.OrderItem;
 import com.example.dscommerce.entities.OrderItemPK;
+import com.example.dscommerce.projections.ProductQuantityProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemPK> {
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_order_item.product_id AS productId, SUM(tb_order_item.quantity) AS quantity
+            FROM tb_order_item
+            GROUP BY tb_order_item.product_id
+            """)
+    List<ProductQuantityProjection> searchQuantitySoldPerProduct();
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_order_item.product_id AS productId, SUM(tb_order_item.quantity) AS quantity
+            FROM tb_order_item
+            WHERE tb_order_item.order_id IN (:orderIds)
+            GROUP BY tb_order_item.product_id
+            """)
+    List<ProductQuantityProjection> searchQuantityPerProductByOrderIds(Collection<Long> orderIds);
+
+    @Query(nativeQuery = true, value = """
+            SELECT EXISTS (SELECT 1 FROM tb_order_item WHERE tb_order_item.product_id = :productId)
+            OR EXISTS (SELECT 1 FROM tb_order_item_archive WHERE tb_order_item_archive.product_id = :productId)
+            """)
+    boolean existsByProductId(Long productId);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_order_item.product_id FROM tb_order_item
+            WHERE tb_order_item.product_id IN (:productIds)
+            UNION
+            SELECT tb_order_item_archive.product_id FROM tb_order_item_archive
+            WHERE tb_order_item_archive.product_id IN (:productIds)
+            """)
+    List<Long> searchReferencedProductIds(Collection<Long> productIds);
 }
@@ -1,7 +1,104 @@
 package com.example.dscommerce.repositories;
 
 import com.example.dscommerce.entities.Order;
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.projections.OrderClientProjection;
+import com.example.dscommerce.projections.OrderProductProjection;
+import com.example.dscommerce.projections.OrderStatusProjection;
+import com.example.dscommerce.projections.OrderSummaryProjection;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @Query("SELECT MAX(obj.id) FROM Order obj")
+    Long findMaxId();
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_order_item.order_id AS orderId, tb_order_item.product_id AS productId
+            FROM tb_order_item
+            WHERE tb_order_item.order_id BETWEEN :minId AND :maxId
+            ORDER BY tb_order_item.order_id
+            """)
+    List<OrderProductProjection> searchBasketRows(Long minId, Long maxId);
+
+    @Query("""
+            SELECT obj.id AS id, obj.moment AS moment, obj.status AS status,
+            obj.total AS total, obj.itemCount AS itemCount
+            FROM Order obj
+            WHERE obj.moment >= :from
+            AND (obj.moment < :moment OR (obj.moment = :moment AND obj.id < :id))
+            ORDER BY obj.moment DESC, obj.id DESC
+            """)
+    List<OrderSummaryProjection> searchSummaries(Instant from, Instant moment, Long id, Limit limit);
+
+    @Query("""
+            SELECT obj.id AS id, obj.moment AS moment, obj.status AS status,
+            obj.total AS total, obj.itemCount AS itemCount
+            FROM Order obj
+            WHERE obj.client.id = :clientId
+            AND obj.moment >= :from
+            AND (obj.moment < :moment OR (obj.moment = :moment AND obj.id < :id))
+            ORDER BY obj.moment DESC, obj.id DESC
+            """)
+    List<OrderSummaryProjection> searchSummariesByClient(Long clientId, Instant from, Instant moment, Long id, Limit limit);
+
+    @Query("""
+            SELECT obj.id AS id, obj.moment AS moment, obj.status AS status,
+            obj.total AS total, obj.itemCount AS itemCount
+            FROM Order obj
+            WHERE obj.status = :status
+            AND obj.moment >= :from
+            AND (obj.moment < :moment OR (obj.moment = :moment AND obj.id < :id))
+            ORDER BY obj.moment DESC, obj.id DESC
+            """)
+    List<OrderSummaryProjection> searchSummariesByStatus(OrderStatus status, Instant from, Instant moment, Long id, Limit limit);
+
+    @Query("""
+            SELECT obj.id AS id, obj.moment AS moment, obj.status AS status,
+            obj.total AS total, obj.itemCount AS itemCount
+            FROM Order obj
+            WHERE obj.status = :status AND obj.client.id = :clientId
+            AND obj.moment >= :from
+            AND (obj.moment < :moment OR (obj.moment = :moment AND obj.id < :id))
+            ORDER BY obj.moment DESC, obj.id DESC
+            """)
+    List<OrderSummaryProjection> searchSummariesByStatusAndClient(OrderStatus status, Long clientId, Instant from, Instant moment, Long id, Limit limit);
+
+    @Query("SELECT obj.status AS status, obj.version AS version, obj.client.id AS clientId FROM Order obj WHERE obj.id = :id")
+    Optional<OrderStatusProjection> findStatusById(Long id);
+
+    @Modifying
+    @Query("""
+            UPDATE Order obj SET obj.status = :next, obj.version = obj.version + 1
+            WHERE obj.id = :id AND obj.status = :current AND obj.version = :version
+            """)
+    int updateStatus(Long id, OrderStatus current, Long version, OrderStatus next);
+
+    @Modifying
+    @Query("""
+            UPDATE Order obj SET obj.status = :next, obj.version = obj.version + 1
+            WHERE obj.id IN :ids AND obj.status IN :allowed
+            """)
+    int updateStatuses(Collection<Long> ids, Collection<OrderStatus> allowed, OrderStatus next);
+
+    @Query("SELECT obj.id FROM Order obj WHERE obj.requestId = :requestId")
+    Optional<Long> findIdByRequestId(UUID requestId);
+
+    @Query("SELECT obj.id AS id, obj.client.id AS clientId FROM Order obj WHERE obj.id IN :ids")
+    List<OrderClientProjection> searchClientIds(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT obj.id FROM Order obj WHERE obj.id IN :ids AND obj.status IN :statuses")
+    List<Long> lockIdsInStatuses(Collection<Long> ids, Collection<OrderStatus> statuses);
 }
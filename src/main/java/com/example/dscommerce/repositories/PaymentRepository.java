@@ -0,0 +1,7 @@
+package com.example.dscommerce.repositories;
+
+import com.example.dscommerce.entities.Payment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+}
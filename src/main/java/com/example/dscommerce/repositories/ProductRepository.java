@@ -1,16 +1,155 @@
 package com.example.dscommerce.repositories;
 
 import com.example.dscommerce.entities.Product;
+import com.example.dscommerce.projections.ProductExportProjection;
+import com.example.dscommerce.projections.ProductFacetProjection;
+import com.example.dscommerce.projections.ProductNameProjection;
+import com.example.dscommerce.projections.ProductTextProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     @Query("SELECT obj from Product obj" +
             " where UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
     Page<Product> searchByName(String name, Pageable pageable);
+
+    @Query("SELECT obj.id FROM Product obj" +
+            " WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    List<Long> searchIdsByName(String name);
+
+    @Query(value = "SELECT obj FROM Product obj LEFT JOIN ProductSales sales ON sales.productId = obj.id" +
+            " WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))" +
+            " ORDER BY COALESCE(sales.quantity, 0) DESC, obj.id",
+            countQuery = "SELECT COUNT(obj) FROM Product obj" +
+                    " WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    Page<Product> searchBestsellingByName(String name, Pageable pageable);
+
+    @Query("SELECT MAX(obj.id) FROM Product obj")
+    Long findMaxId();
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.price, tb_product_category.category_id AS categoryId
+            FROM tb_product
+            LEFT JOIN tb_product_category ON tb_product.id = tb_product_category.product_id
+            WHERE tb_product.id BETWEEN :minId AND :maxId
+            """)
+    List<ProductFacetProjection> searchFacetRows(Long minId, Long maxId);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name
+            FROM tb_product
+            WHERE tb_product.id BETWEEN :minId AND :maxId
+            """)
+    List<ProductNameProjection> searchNameRows(Long minId, Long maxId);
+
+    @Query("""
+            SELECT obj.id AS id, obj.name AS name, obj.description AS description
+            FROM Product obj
+            WHERE obj.id BETWEEN :minId AND :maxId
+            """)
+    List<ProductTextProjection> searchTextRows(Long minId, Long maxId);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product_category.product_id FROM tb_product_category
+            WHERE tb_product_category.category_id = :categoryId
+            """)
+    List<Long> searchIdsByCategory(Long categoryId);
+
+    @Query("SELECT obj.id FROM Product obj WHERE obj.id BETWEEN :minId AND :maxId")
+    List<Long> searchIdsBetween(Long minId, Long maxId);
+
+    @EntityGraph(attributePaths = "categories")
+    @Query("SELECT obj FROM Product obj WHERE obj.id IN :ids")
+    List<Product> searchWithCategories(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT obj.id AS id, obj.name AS name, obj.description AS description, obj.price AS price,
+            obj.imgUrl AS imgUrl, category.id AS categoryId, category.name AS categoryName
+            FROM Product obj
+            LEFT JOIN obj.categories category
+            ORDER BY obj.id, category.id
+            """)
+    Stream<ProductExportProjection> streamExportRows();
+
+    @Modifying(clearAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            UPDATE tb_product SET price = ROUND(price * :factor, 2)
+            WHERE tb_product.id IN (SELECT tb_product_category.product_id FROM tb_product_category
+            WHERE tb_product_category.category_id = :categoryId)
+            """)
+    int adjustPricesByCategory(Long categoryId, BigDecimal factor);
+
+    @Modifying(clearAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            DELETE FROM tb_product_category
+            WHERE tb_product_category.product_id BETWEEN :minId AND :maxId
+            AND tb_product_category.category_id <> :categoryId
+            """)
+    int deleteOtherCategories(Long minId, Long maxId, Long categoryId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO tb_product_category (product_id, category_id)
+            SELECT tb_product.id, :categoryId FROM tb_product
+            WHERE tb_product.id BETWEEN :minId AND :maxId
+            AND NOT EXISTS (SELECT 1 FROM tb_product_category
+            WHERE tb_product_category.product_id = tb_product.id AND tb_product_category.category_id = :categoryId)
+            """)
+    int insertMissingCategory(Long minId, Long maxId, Long categoryId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            DELETE FROM tb_product_category
+            WHERE tb_product_category.product_id IN (:ids)
+            AND NOT EXISTS (SELECT 1 FROM tb_order_item WHERE tb_order_item.product_id = tb_product_category.product_id)
+            AND NOT EXISTS (SELECT 1 FROM tb_order_item_archive
+            WHERE tb_order_item_archive.product_id = tb_product_category.product_id)
+            """)
+    int deleteUnreferencedCategories(Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            DELETE FROM tb_product
+            WHERE tb_product.id IN (:ids)
+            AND NOT EXISTS (SELECT 1 FROM tb_order_item WHERE tb_order_item.product_id = tb_product.id)
+            AND NOT EXISTS (SELECT 1 FROM tb_order_item_archive WHERE tb_order_item_archive.product_id = tb_product.id)
+            """)
+    int deleteUnreferenced(Collection<Long> ids);
+
+    @Query(nativeQuery = true, value = "SELECT tb_product.stock FROM tb_product WHERE tb_product.id = :id")
+    Integer findStock(Long id);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE tb_product SET stock = stock - :quantity
+            WHERE tb_product.id = :id AND tb_product.stock >= :quantity
+            """)
+    int decrementStock(Long id, int quantity);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE tb_product SET stock = stock + :quantity
+            WHERE tb_product.id = :id AND tb_product.stock IS NOT NULL
+            """)
+    int incrementStock(Long id, long quantity);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE tb_product SET stock = :stock WHERE tb_product.id = :id")
+    int updateStock(Long id, Integer stock);
 }
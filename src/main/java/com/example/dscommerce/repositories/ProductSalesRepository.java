@@ -0,0 +1,27 @@
+package com.example.dscommerce.repositories;
+
+import com.example.dscommerce.entities.ProductSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Long> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE tb_product_sales SET quantity = quantity + :quantity, revenue = revenue + :revenue
+            WHERE tb_product_sales.product_id = :productId
+            """)
+    int addSales(Long productId, long quantity, BigDecimal revenue);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO tb_product_sales (product_id, quantity, revenue)
+            SELECT tb_order_item.product_id, SUM(tb_order_item.quantity), SUM(tb_order_item.quantity * tb_order_item.price)
+            FROM tb_order_item
+            GROUP BY tb_order_item.product_id
+            """)
+    int insertFromOrderItems();
+}
@@ -0,0 +1,284 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.dto.CategoryDTO;
+import com.example.dscommerce.dto.CategoryFacetDTO;
+import com.example.dscommerce.dto.PriceRangeFacetDTO;
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductFacetsDTO;
+import com.example.dscommerce.events.CatalogChangedEvent;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.projections.ProductFacetProjection;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.example.dscommerce.util.Money;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private final ProductRepository productRepository;
+    private final long[] priceBounds;
+    private final long maxBytes;
+    private final int loadBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private RoaringBitmap all = new RoaringBitmap();
+    private Map<Long, RoaringBitmap> byCategory = new TreeMap<>();
+    private RoaringBitmap[] byPriceRange;
+    private Map<Long, ProductDTO> changesDuringRebuild;
+    private volatile boolean available;
+
+    public ProductFacetIndex(ProductRepository productRepository,
+                             @Value("${catalog.facets.price-ranges}") String priceRanges,
+                             @Value("${catalog.facets.max-bytes}") long maxBytes,
+                             @Value("${catalog.facets.load-batch-size}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.priceBounds = Arrays.stream(priceRanges.split(",")).map(String::trim).map(BigDecimal::new).mapToLong(Money::toMinorUnits).sorted().toArray();
+        this.maxBytes = maxBytes;
+        this.loadBatchSize = loadBatchSize;
+        this.byPriceRange = newPriceRanges();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        RoaringBitmap newAll = new RoaringBitmap();
+        Map<Long, RoaringBitmap> newByCategory = new TreeMap<>();
+        RoaringBitmap[] newByPriceRange = newPriceRanges();
+
+        Long maxId = productRepository.findMaxId();
+        if (maxId != null) {
+            for (long minId = 0; minId <= maxId; minId += loadBatchSize) {
+                for (ProductFacetProjection row : productRepository.searchFacetRows(minId, minId + loadBatchSize - 1)) {
+                    int docId = Math.toIntExact(row.getId());
+                    newAll.add(docId);
+                    newByPriceRange[priceRangeOf(Money.toMinorUnits(row.getPrice()))].add(docId);
+                    if (row.getCategoryId() != null) {
+                        newByCategory.computeIfAbsent(row.getCategoryId(), k -> new RoaringBitmap()).add(docId);
+                    }
+                }
+            }
+        }
+        newAll.runOptimize();
+        newByCategory.values().forEach(RoaringBitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            all = newAll;
+            byCategory = newByCategory;
+            byPriceRange = newByPriceRange;
+            changesDuringRebuild.forEach((productId, product) -> {
+                if (product == null) {
+                    clear(Math.toIntExact(productId));
+                } else {
+                    index(product);
+                }
+            });
+            changesDuringRebuild = null;
+            available = true;
+            enforceBudget();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product facet index built with {} products", newAll.getCardinality());
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.facets.retry-interval}", initialDelayString = "${catalog.facets.retry-interval}")
+    public void retryRebuild() {
+        lock.readLock().lock();
+        try {
+            if (available || changesDuringRebuild != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        logger.info("Retrying disabled product facet index");
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            put(event.getProduct());
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        logger.info("Rebuilding product facet index after {}", event.getReason());
+        rebuild();
+    }
+
+    public void put(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(product.getId(), product);
+            }
+            if (!available) {
+                return;
+            }
+            index(product);
+            enforceBudget();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(productId, null);
+            }
+            if (available) {
+                clear(Math.toIntExact(productId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductFacetsDTO facets(Collection<Long> categoryIds, Integer priceRange) {
+        return facets(null, categoryIds, priceRange);
+    }
+
+    public ProductFacetsDTO facets(Collection<Long> productIds, Collection<Long> categoryIds, Integer priceRange) {
+        RoaringBitmap matching = null;
+        if (productIds != null) {
+            matching = new RoaringBitmap();
+            for (Long productId : productIds) {
+                matching.add(Math.toIntExact(productId));
+            }
+        }
+        lock.readLock().lock();
+        try {
+            if (!available) {
+                throw new ServiceUnavailableException("Facet index unavailable");
+            }
+            RoaringBitmap base = matching == null ? all : RoaringBitmap.and(all, matching);
+            RoaringBitmap categoryFilter = base;
+            if (categoryIds != null && !categoryIds.isEmpty()) {
+                categoryFilter = new RoaringBitmap();
+                for (Long categoryId : categoryIds) {
+                    RoaringBitmap bitmap = byCategory.get(categoryId);
+                    if (bitmap != null) {
+                        categoryFilter.or(bitmap);
+                    }
+                }
+                categoryFilter.and(base);
+            }
+            RoaringBitmap priceFilter = base;
+            if (priceRange != null) {
+                priceFilter = priceRange >= 0 && priceRange < byPriceRange.length
+                        ? RoaringBitmap.and(byPriceRange[priceRange], base) : new RoaringBitmap();
+            }
+
+            ProductFacetsDTO dto = new ProductFacetsDTO(RoaringBitmap.andCardinality(categoryFilter, priceFilter));
+            for (Map.Entry<Long, RoaringBitmap> entry : byCategory.entrySet()) {
+                long count = RoaringBitmap.andCardinality(entry.getValue(), priceFilter);
+                if (count > 0) {
+                    dto.getCategories().add(new CategoryFacetDTO(entry.getKey(), count));
+                }
+            }
+            for (int i = 0; i < priceBounds.length; i++) {
+                Money max = i + 1 < priceBounds.length ? Money.of(priceBounds[i + 1]) : null;
+                long count = RoaringBitmap.andCardinality(byPriceRange[i], categoryFilter);
+                dto.getPriceRanges().add(new PriceRangeFacetDTO(i, Money.of(priceBounds[i]), max, count));
+            }
+            return dto;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    private void index(ProductDTO product) {
+        int docId = Math.toIntExact(product.getId());
+        clear(docId);
+        all.add(docId);
+        byPriceRange[priceRangeOf(product.getPrice().minorUnitsIn(Money.CURRENCY))].add(docId);
+        for (CategoryDTO category : product.getCategories()) {
+            byCategory.computeIfAbsent(category.getId(), k -> new RoaringBitmap()).add(docId);
+        }
+    }
+
+    private void clear(int docId) {
+        if (!all.contains(docId)) {
+            return;
+        }
+        all.remove(docId);
+        for (RoaringBitmap bitmap : byPriceRange) {
+            bitmap.remove(docId);
+        }
+        for (RoaringBitmap bitmap : byCategory.values()) {
+            bitmap.remove(docId);
+        }
+    }
+
+    private void enforceBudget() {
+        long bytes = all.getLongSizeInBytes();
+        for (RoaringBitmap bitmap : byPriceRange) {
+            bytes += bitmap.getLongSizeInBytes();
+        }
+        for (RoaringBitmap bitmap : byCategory.values()) {
+            bytes += bitmap.getLongSizeInBytes();
+        }
+        if (bytes > maxBytes) {
+            logger.warn("Product facet index needs {} bytes, above the {} bytes budget; disabling it until a retry fits", bytes, maxBytes);
+            all = new RoaringBitmap();
+            byCategory = new TreeMap<>();
+            byPriceRange = newPriceRanges();
+            available = false;
+        }
+    }
+
+    private int priceRangeOf(long price) {
+        int index = Arrays.binarySearch(priceBounds, price);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return Math.max(index, 0);
+    }
+
+    private RoaringBitmap[] newPriceRanges() {
+        RoaringBitmap[] ranges = new RoaringBitmap[priceBounds.length];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = new RoaringBitmap();
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.projections.ProductNameProjection;
+import com.example.dscommerce.repositories.ProductRepository;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ProductFuzzyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFuzzyIndex.class);
+
+    private final ProductRepository productRepository;
+    private final int maxEdits;
+    private final int loadBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Terms current = new Terms();
+    private Map<Long, String> changesDuringRebuild;
+
+    public ProductFuzzyIndex(ProductRepository productRepository,
+                             @Value("${catalog.fuzzy.max-edits}") int maxEdits,
+                             @Value("${catalog.fuzzy.load-batch-size}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.maxEdits = maxEdits;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Terms loaded = new Terms();
+        Long maxId = productRepository.findMaxId();
+        if (maxId != null) {
+            for (long minId = 0; minId <= maxId; minId += loadBatchSize) {
+                for (ProductNameProjection row : productRepository.searchNameRows(minId, minId + loadBatchSize - 1)) {
+                    loaded.index(row.getId(), row.getName());
+                }
+            }
+        }
+        loaded.terms.values().forEach(term -> term.products.runOptimize());
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach((productId, name) -> {
+                loaded.unindex(productId);
+                if (name != null) {
+                    loaded.index(productId, name);
+                }
+            });
+            current = loaded;
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product fuzzy index built with {} products and {} terms", loaded.productTokens.size(), loaded.terms.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            put(event.getProduct());
+        }
+    }
+
+    public void put(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            current.unindex(product.getId());
+            current.index(product.getId(), product.getName());
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(product.getId(), product.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            current.unindex(productId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page<Long> search(String query, Pageable pageable) {
+        Set<String> tokens = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        if (tokens.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap[] tiers = new RoaringBitmap[maxEdits + 1];
+            for (String token : tokens) {
+                RoaringBitmap[] matches = current.match(token, maxEdits);
+                for (int d = 0; d <= maxEdits; d++) {
+                    tiers[d] = tiers[d] == null ? matches[d] : RoaringBitmap.and(tiers[d], matches[d]);
+                }
+            }
+
+            long total = tiers[maxEdits].getLongCardinality();
+            long offset = pageable.getOffset();
+            List<Long> ids = new ArrayList<>(pageable.getPageSize());
+            RoaringBitmap previous = new RoaringBitmap();
+            for (int d = 0; d <= maxEdits && ids.size() < pageable.getPageSize(); d++) {
+                RoaringBitmap tier = RoaringBitmap.andNot(tiers[d], previous);
+                previous = tiers[d];
+                long cardinality = tier.getLongCardinality();
+                if (offset >= cardinality) {
+                    offset -= cardinality;
+                    continue;
+                }
+                PeekableIntIterator iterator = tier.getIntIterator();
+                iterator.advanceIfNeeded(tier.select((int) offset));
+                offset = 0;
+                while (iterator.hasNext() && ids.size() < pageable.getPageSize()) {
+                    ids.add((long) iterator.next());
+                }
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> trigrams(String token) {
+        String padded = "$$" + token + "$$";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    static int distance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Terms {
+        private final Map<String, Term> terms = new HashMap<>();
+        private final List<Term> termsById = new ArrayList<>();
+        private final Deque<Integer> freeTermIds = new ArrayDeque<>();
+        private final Map<String, RoaringBitmap> termsByTrigram = new HashMap<>();
+        private final Map<Long, Set<String>> productTokens = new HashMap<>();
+
+        private RoaringBitmap[] match(String token, int maxEdits) {
+            int edits = Math.min(maxEdits, token.length() <= 3 ? 0 : token.length() <= 5 ? 1 : 2);
+            RoaringBitmap[] byDistance = new RoaringBitmap[maxEdits + 1];
+            for (int d = 0; d <= maxEdits; d++) {
+                byDistance[d] = new RoaringBitmap();
+            }
+
+            if (edits == 0) {
+                Term term = terms.get(token);
+                if (term != null) {
+                    byDistance[0].or(term.products);
+                }
+            } else {
+                Set<String> trigrams = trigrams(token);
+                Map<Integer, Integer> shared = new HashMap<>();
+                for (String trigram : trigrams) {
+                    RoaringBitmap termIds = termsByTrigram.get(trigram);
+                    if (termIds != null) {
+                        termIds.forEach((int termId) -> shared.merge(termId, 1, Integer::sum));
+                    }
+                }
+                int threshold = Math.max(1, trigrams.size() - 3 * edits);
+                for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+                    Term term = termsById.get(candidate.getKey());
+                    if (candidate.getValue() < threshold || term == null
+                            || Math.abs(term.text.length() - token.length()) > edits) {
+                        continue;
+                    }
+                    int distance = distance(token, term.text, edits);
+                    if (distance <= edits) {
+                        byDistance[distance].or(term.products);
+                    }
+                }
+            }
+
+            for (int d = 1; d <= maxEdits; d++) {
+                byDistance[d].or(byDistance[d - 1]);
+            }
+            return byDistance;
+        }
+
+        private void index(Long productId, String name) {
+            Set<String> tokens = new LinkedHashSet<>(TextTokenizer.tokenize(name));
+            productTokens.put(productId, tokens);
+            int docId = Math.toIntExact(productId);
+            for (String token : tokens) {
+                Term term = terms.get(token);
+                if (term == null) {
+                    term = newTerm(token);
+                    for (String trigram : trigrams(token)) {
+                        termsByTrigram.computeIfAbsent(trigram, k -> new RoaringBitmap()).add(term.id);
+                    }
+                }
+                term.products.add(docId);
+            }
+        }
+
+        private Term newTerm(String token) {
+            Integer id = freeTermIds.poll();
+            Term term = new Term(id != null ? id : termsById.size(), token);
+            terms.put(token, term);
+            if (id != null) {
+                termsById.set(id, term);
+            } else {
+                termsById.add(term);
+            }
+            return term;
+        }
+
+        private void unindex(Long productId) {
+            Set<String> tokens = productTokens.remove(productId);
+            if (tokens == null) {
+                return;
+            }
+            int docId = Math.toIntExact(productId);
+            for (String token : tokens) {
+                Term term = terms.get(token);
+                if (term == null) {
+                    continue;
+                }
+                term.products.remove(docId);
+                if (term.products.isEmpty()) {
+                    terms.remove(token);
+                    termsById.set(term.id, null);
+                    freeTermIds.push(term.id);
+                    for (String trigram : trigrams(token)) {
+                        RoaringBitmap termIds = termsByTrigram.get(trigram);
+                        if (termIds != null) {
+                            termIds.remove(term.id);
+                            if (termIds.isEmpty()) {
+                                termsByTrigram.remove(trigram);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Term {
+        private final int id;
+        private final String text;
+        private final RoaringBitmap products = new RoaringBitmap();
+
+        private Term(int id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+}
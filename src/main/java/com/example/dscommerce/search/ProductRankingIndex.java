@@ -0,0 +1,226 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.projections.ProductTextProjection;
+import com.example.dscommerce.repositories.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ProductRankingIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductRankingIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<ScoredProduct> WORST_FIRST =
+            Comparator.comparingDouble(ScoredProduct::score).thenComparing(ScoredProduct::id, Comparator.reverseOrder());
+
+    private final ProductRepository productRepository;
+    private final double nameBoost;
+    private final int loadBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Corpus current = new Corpus();
+    private Map<Long, ProductDTO> changesDuringRebuild;
+
+    public ProductRankingIndex(ProductRepository productRepository,
+                               @Value("${catalog.ranking.name-boost}") double nameBoost,
+                               @Value("${catalog.ranking.load-batch-size}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.nameBoost = nameBoost;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Corpus loaded = new Corpus();
+        Long maxId = productRepository.findMaxId();
+        if (maxId != null) {
+            for (long minId = 0; minId <= maxId; minId += loadBatchSize) {
+                for (ProductTextProjection row : productRepository.searchTextRows(minId, minId + loadBatchSize - 1)) {
+                    loaded.index(row.getId(), row.getName(), row.getDescription(), nameBoost);
+                }
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach((productId, product) -> {
+                loaded.unindex(productId);
+                if (product != null) {
+                    loaded.index(productId, product.getName(), product.getDescription(), nameBoost);
+                }
+            });
+            current = loaded;
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product ranking index built with {} products and {} terms", loaded.documents.size(), loaded.postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            put(event.getProduct());
+        }
+    }
+
+    public void put(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            current.unindex(product.getId());
+            current.index(product.getId(), product.getName(), product.getDescription(), nameBoost);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(product.getId(), product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            current.unindex(productId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page<Long> search(String query, Pageable pageable) {
+        Set<String> terms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Map<Long, Posting>> postings = current.postings;
+            Map<Long, Document> documents = current.documents;
+            double totalLength = current.totalLength;
+            double averageLength = documents.isEmpty() ? 1.0 : Math.max(totalLength / documents.size(), 1.0);
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Posting> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (documents.size() - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                for (Map.Entry<Long, Posting> entry : termPostings.entrySet()) {
+                    Posting posting = entry.getValue();
+                    double frequency = nameBoost * posting.nameFrequency() + posting.descriptionFrequency();
+                    double length = documents.get(entry.getKey()).length();
+                    double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+
+            long limit = Math.min(pageable.getOffset() + pageable.getPageSize(), scores.size());
+            PriorityQueue<ScoredProduct> top = new PriorityQueue<>(WORST_FIRST);
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                ScoredProduct candidate = new ScoredProduct(entry.getKey(), entry.getValue());
+                if (top.size() < limit) {
+                    top.add(candidate);
+                } else if (limit > 0 && WORST_FIRST.compare(candidate, top.peek()) > 0) {
+                    top.poll();
+                    top.add(candidate);
+                }
+            }
+
+            List<Long> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(top.poll().id());
+            }
+            List<Long> ids = new ArrayList<>(pageable.getPageSize());
+            for (int i = ranked.size() - 1 - (int) pageable.getOffset(); i >= 0; i--) {
+                ids.add(ranked.get(i));
+            }
+            return new PageImpl<>(ids, pageable, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class Corpus {
+        private final Map<String, Map<Long, Posting>> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private double totalLength;
+
+        private void index(Long productId, String name, String description, double nameBoost) {
+            List<String> nameTokens = TextTokenizer.tokenize(name);
+            List<String> descriptionTokens = TextTokenizer.tokenize(description);
+            Map<String, int[]> frequencies = new HashMap<>();
+            nameTokens.forEach(token -> frequencies.computeIfAbsent(token, k -> new int[2])[0]++);
+            descriptionTokens.forEach(token -> frequencies.computeIfAbsent(token, k -> new int[2])[1]++);
+
+            double length = nameBoost * nameTokens.size() + descriptionTokens.size();
+            documents.put(productId, new Document(length, frequencies.keySet()));
+            totalLength += length;
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                        .put(productId, new Posting(entry.getValue()[0], entry.getValue()[1]));
+            }
+        }
+
+        private void unindex(Long productId) {
+            Document document = documents.remove(productId);
+            if (document == null) {
+                return;
+            }
+            totalLength -= document.length();
+            for (String term : document.terms()) {
+                Map<Long, Posting> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    termPostings.remove(productId);
+                    if (termPostings.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    private record Posting(int nameFrequency, int descriptionFrequency) {
+    }
+
+    private record Document(double length, Set<String> terms) {
+    }
+
+    private record ScoredProduct(Long id, double score) {
+    }
+}
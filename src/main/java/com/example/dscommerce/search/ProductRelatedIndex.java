@@ -0,0 +1,280 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.dto.OrderItemDTO;
+import com.example.dscommerce.events.OrderPlacedEvent;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.projections.OrderProductProjection;
+import com.example.dscommerce.repositories.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Component
+public class ProductRelatedIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductRelatedIndex.class);
+
+    private static final int COUNT_TASK_THRESHOLD = 1024;
+
+    private final OrderRepository orderRepository;
+    private final int topK;
+    private final int loadBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, LongIntHashMap> counts = new HashMap<>();
+    private Map<Long, TopK> tops = new HashMap<>();
+    private Map<Long, long[]> basketsDuringRebuild;
+    private List<Long> removalsDuringRebuild;
+
+    public ProductRelatedIndex(OrderRepository orderRepository,
+                               @Value("${catalog.related.top-k}") int topK,
+                               @Value("${catalog.related.load-batch-size}") int loadBatchSize) {
+        this.orderRepository = orderRepository;
+        this.topK = topK;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            basketsDuringRebuild = new HashMap<>();
+            removalsDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, LongIntHashMap> newCounts = new HashMap<>();
+        BitSet loadedOrderIds = new BitSet();
+        Long maxId = orderRepository.findMaxId();
+        if (maxId != null) {
+            for (long minId = 0; minId <= maxId; minId += loadBatchSize) {
+                List<OrderProductProjection> rows = orderRepository.searchBasketRows(minId, minId + loadBatchSize - 1);
+                List<long[]> baskets = new ArrayList<>();
+                int start = 0;
+                for (int i = 1; i <= rows.size(); i++) {
+                    if (i == rows.size() || !rows.get(i).getOrderId().equals(rows.get(start).getOrderId())) {
+                        baskets.add(rows.subList(start, i).stream().mapToLong(OrderProductProjection::getProductId).toArray());
+                        loadedOrderIds.set(Math.toIntExact(rows.get(start).getOrderId()));
+                        start = i;
+                    }
+                }
+                newCounts = merge(newCounts, ForkJoinPool.commonPool().invoke(new CountTask(baskets, 0, baskets.size())));
+            }
+        }
+
+        Map<Long, TopK> newTops = newCounts.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> TopK.of(e.getValue(), topK)));
+
+        lock.writeLock().lock();
+        try {
+            counts = newCounts;
+            tops = newTops;
+            basketsDuringRebuild.forEach((orderId, productIds) -> {
+                if (!loadedOrderIds.get(Math.toIntExact(orderId))) {
+                    count(productIds);
+                }
+            });
+            removalsDuringRebuild.forEach(this::uncount);
+            basketsDuringRebuild = null;
+            removalsDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Related products index built from {} orders for {} products", loadedOrderIds.cardinality(), newCounts.size());
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        addBasket(event.getOrder().getId(), event.getOrder().getItems().stream().mapToLong(OrderItemDTO::getProductId).distinct().toArray());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            removeProduct(event.getProductId());
+        }
+    }
+
+    public void addBasket(Long orderId, long[] productIds) {
+        lock.writeLock().lock();
+        try {
+            count(productIds);
+            if (basketsDuringRebuild != null) {
+                basketsDuringRebuild.put(orderId, productIds);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProduct(Long productId) {
+        lock.writeLock().lock();
+        try {
+            uncount(productId);
+            if (removalsDuringRebuild != null) {
+                removalsDuringRebuild.add(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> related(Long productId, int limit) {
+        lock.readLock().lock();
+        try {
+            TopK top = tops.get(productId);
+            if (top == null) {
+                return List.of();
+            }
+            List<Long> result = new ArrayList<>(Math.min(limit, top.size));
+            for (int i = 0; i < top.size && i < limit; i++) {
+                result.add(top.ids[i]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void count(long[] productIds) {
+        for (long a : productIds) {
+            LongIntHashMap related = counts.computeIfAbsent(a, k -> new LongIntHashMap());
+            TopK top = tops.computeIfAbsent(a, k -> new TopK(topK));
+            for (long b : productIds) {
+                if (a != b) {
+                    top.offer(b, related.add(b, 1));
+                }
+            }
+        }
+    }
+
+    private void uncount(long productId) {
+        LongIntHashMap related = counts.remove(productId);
+        tops.remove(productId);
+        if (related == null) {
+            return;
+        }
+        related.forEach((other, count) -> {
+            LongIntHashMap otherRelated = counts.get(other);
+            if (otherRelated != null && otherRelated.remove(productId)) {
+                tops.put(other, TopK.of(otherRelated, topK));
+            }
+        });
+    }
+
+    private static Map<Long, LongIntHashMap> merge(Map<Long, LongIntHashMap> a, Map<Long, LongIntHashMap> b) {
+        Map<Long, LongIntHashMap> larger = a.size() >= b.size() ? a : b;
+        Map<Long, LongIntHashMap> smaller = larger == a ? b : a;
+        smaller.forEach((productId, related) -> {
+            LongIntHashMap target = larger.get(productId);
+            if (target == null) {
+                larger.put(productId, related);
+            } else {
+                target.addAll(related);
+            }
+        });
+        return larger;
+    }
+
+    private static void count(long[] basket, Map<Long, LongIntHashMap> counts) {
+        for (long a : basket) {
+            LongIntHashMap related = counts.computeIfAbsent(a, k -> new LongIntHashMap());
+            for (long b : basket) {
+                if (a != b) {
+                    related.add(b, 1);
+                }
+            }
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<Map<Long, LongIntHashMap>> {
+        private final List<long[]> baskets;
+        private final int from;
+        private final int to;
+
+        private CountTask(List<long[]> baskets, int from, int to) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, LongIntHashMap> compute() {
+            if (to - from <= COUNT_TASK_THRESHOLD) {
+                Map<Long, LongIntHashMap> result = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    count(baskets.get(i), result);
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(baskets, from, middle);
+            left.fork();
+            Map<Long, LongIntHashMap> right = new CountTask(baskets, middle, to).compute();
+            return merge(left.join(), right);
+        }
+    }
+
+    private static final class TopK {
+        private final long[] ids;
+        private final int[] counts;
+        private int size;
+
+        private TopK(int k) {
+            ids = new long[k];
+            counts = new int[k];
+        }
+
+        private static TopK of(LongIntHashMap related, int k) {
+            TopK top = new TopK(k);
+            related.forEach(top::offer);
+            return top;
+        }
+
+        private void offer(long id, int count) {
+            int pos = -1;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                if (size < ids.length) {
+                    pos = size++;
+                } else if (size > 0 && ranksBefore(id, count, size - 1)) {
+                    pos = size - 1;
+                } else {
+                    return;
+                }
+            }
+            while (pos > 0 && ranksBefore(id, count, pos - 1)) {
+                ids[pos] = ids[pos - 1];
+                counts[pos] = counts[pos - 1];
+                pos--;
+            }
+            ids[pos] = id;
+            counts[pos] = count;
+        }
+
+        private boolean ranksBefore(long id, int count, int index) {
+            return count > counts[index] || (count == counts[index] && id < ids[index]);
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.dto.OrderItemDTO;
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductSuggestionDTO;
+import com.example.dscommerce.events.OrderPlacedEvent;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.projections.ProductQuantityProjection;
+import com.example.dscommerce.repositories.OrderItemRepository;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@Component
+public class ProductSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    private static final Comparator<Entry> BY_POPULARITY =
+            Comparator.comparingLong((Entry e) -> e.weight).reversed().thenComparingLong(e -> e.id);
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final int topK;
+    private final int loadBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+    private Map<Long, Entry> entries = new HashMap<>();
+    private Map<Long, String> changesDuringRebuild;
+    private Map<Long, Long> salesDuringRebuild;
+
+    public ProductSuggestIndex(ProductRepository productRepository, OrderItemRepository orderItemRepository,
+                               @Value("${catalog.suggest.top-k}") int topK,
+                               @Value("${catalog.suggest.load-batch-size}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.topK = topK;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+            salesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Long> popularity = new HashMap<>();
+        for (ProductQuantityProjection row : orderItemRepository.searchQuantitySoldPerProduct()) {
+            popularity.put(row.getProductId(), row.getQuantity());
+        }
+
+        Long maxId = productRepository.findMaxId();
+        List<Entry> loaded = maxId == null ? List.of() : LongStream.rangeClosed(0, maxId / loadBatchSize).parallel()
+                .mapToObj(batch -> productRepository.searchNameRows(batch * loadBatchSize, (batch + 1) * loadBatchSize - 1))
+                .flatMap(List::stream)
+                .map(row -> new Entry(row.getId(), row.getName(), popularity.getOrDefault(row.getId(), 0L)))
+                .toList();
+
+        TreeMap<Character, Node> subtrees = loaded.parallelStream()
+                .flatMap(entry -> entry.tokens.stream().map(token -> new Posting(token, entry)))
+                .collect(Collectors.groupingByConcurrent(posting -> posting.token().charAt(0)))
+                .entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> buildSubtree(e.getValue()), (a, b) -> a, TreeMap::new));
+
+        Node newRoot = new Node();
+        newRoot.keys = new char[subtrees.size()];
+        newRoot.children = new Node[subtrees.size()];
+        int i = 0;
+        for (Map.Entry<Character, Node> subtree : subtrees.entrySet()) {
+            newRoot.keys[i] = subtree.getKey();
+            newRoot.children[i++] = subtree.getValue();
+        }
+        Map<Long, Entry> newEntries = new HashMap<>();
+        loaded.forEach(entry -> newEntries.put(entry.id, entry));
+
+        lock.writeLock().lock();
+        try {
+            root = newRoot;
+            entries = newEntries;
+            changesDuringRebuild.forEach((productId, name) -> {
+                if (name == null) {
+                    removeEntry(productId);
+                } else {
+                    putEntry(productId, name);
+                }
+            });
+            salesDuringRebuild.forEach(this::addEntrySales);
+            changesDuringRebuild = null;
+            salesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product suggest index built with {} products", loaded.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            put(event.getProduct());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        Map<Long, Long> quantities = new HashMap<>();
+        for (OrderItemDTO item : event.getOrder().getItems()) {
+            quantities.merge(item.getProductId(), (long) item.getQuantity(), Long::sum);
+        }
+        addSales(quantities);
+    }
+
+    public void put(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            putEntry(product.getId(), product.getName());
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(product.getId(), product.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addSales(Map<Long, Long> quantities) {
+        lock.writeLock().lock();
+        try {
+            quantities.forEach(this::addEntrySales);
+            if (salesDuringRebuild != null) {
+                quantities.forEach((productId, quantity) -> salesDuringRebuild.merge(productId, quantity, Long::sum));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(productId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSuggestionDTO> suggest(String query, int requestedLimit) {
+        if (requestedLimit < 1) {
+            throw new BadRequestException("Limit must be greater than 0");
+        }
+        int limit = Math.min(requestedLimit, topK);
+        List<String> tokens = TextTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String prefix = tokens.getLast();
+        List<String> others = tokens.subList(0, tokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            List<ProductSuggestionDTO> result = new ArrayList<>();
+            for (Entry entry : node.top) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (entry.containsPrefixes(others)) {
+                    result.add(new ProductSuggestionDTO(entry.id, entry.name));
+                }
+            }
+            if (result.size() < limit && !others.isEmpty() && node.top.length >= topK) {
+                return scan(tokens, limit);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putEntry(Long productId, String name) {
+        Entry old = entries.remove(productId);
+        if (old != null) {
+            unindex(old);
+        }
+        index(new Entry(productId, name, old != null ? old.weight : 0L));
+    }
+
+    private void addEntrySales(Long productId, Long quantity) {
+        Entry old = entries.remove(productId);
+        if (old != null) {
+            unindex(old);
+            index(new Entry(old.id, old.name, old.weight + quantity));
+        }
+    }
+
+    private void removeEntry(Long productId) {
+        Entry old = entries.remove(productId);
+        if (old != null) {
+            unindex(old);
+        }
+    }
+
+    private List<ProductSuggestionDTO> scan(List<String> tokens, int limit) {
+        String longest = tokens.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        Node node = root;
+        for (int i = 0; i < longest.length() && node != null; i++) {
+            node = node.child(longest.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        Node collector = new Node();
+        collectMatching(node, tokens, limit, collector);
+        List<ProductSuggestionDTO> result = new ArrayList<>(collector.top.length);
+        for (Entry entry : collector.top) {
+            result.add(new ProductSuggestionDTO(entry.id, entry.name));
+        }
+        return result;
+    }
+
+    private void collectMatching(Node node, List<String> tokens, int limit, Node collector) {
+        if (node.terminals != null) {
+            for (Entry entry : node.terminals) {
+                if (entry.containsPrefixes(tokens)) {
+                    collector.offer(entry, limit);
+                }
+            }
+        }
+        for (Node child : node.children) {
+            collectMatching(child, tokens, limit, collector);
+        }
+    }
+
+    private Node buildSubtree(List<Posting> postings) {
+        Node subtree = new Node();
+        for (Posting posting : postings) {
+            Node node = subtree;
+            node.offer(posting.entry(), topK);
+            for (int i = 1; i < posting.token().length(); i++) {
+                node = node.childOrCreate(posting.token().charAt(i));
+                node.offer(posting.entry(), topK);
+            }
+            node.addTerminal(posting.entry());
+        }
+        return subtree;
+    }
+
+    private void index(Entry entry) {
+        entries.put(entry.id, entry);
+        for (String token : entry.tokens) {
+            Node node = root;
+            for (int i = 0; i < token.length(); i++) {
+                node = node.childOrCreate(token.charAt(i));
+                node.offer(entry, topK);
+            }
+            node.addTerminal(entry);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        Map<Node, Integer> depths = new IdentityHashMap<>();
+        for (String token : entry.tokens) {
+            Node node = root;
+            for (int i = 0; i < token.length() && node != null; i++) {
+                node = node.child(token.charAt(i));
+                if (node != null) {
+                    depths.put(node, i);
+                }
+            }
+            if (node != null) {
+                node.removeTerminal(entry);
+            }
+        }
+        List<Node> path = new ArrayList<>(depths.keySet());
+        path.sort(Comparator.comparingInt(depths::get).reversed());
+        for (Node node : path) {
+            if (node.drop(entry)) {
+                recompute(node);
+            }
+        }
+    }
+
+    private void recompute(Node node) {
+        Node collector = new Node();
+        if (node.terminals != null) {
+            for (Entry entry : node.terminals) {
+                collector.offer(entry, topK);
+            }
+        }
+        for (Node child : node.children) {
+            for (Entry entry : child.top) {
+                collector.offer(entry, topK);
+            }
+        }
+        node.top = collector.top;
+    }
+
+    private record Posting(String token, Entry entry) {
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String name;
+        private final long weight;
+        private final Set<String> tokens;
+
+        private Entry(long id, String name, long weight) {
+            this.id = id;
+            this.name = name;
+            this.weight = weight;
+            this.tokens = new LinkedHashSet<>(TextTokenizer.tokenize(name));
+        }
+
+        private boolean containsPrefixes(List<String> prefixes) {
+            for (String prefix : prefixes) {
+                boolean found = false;
+                for (String token : tokens) {
+                    if (token.startsWith(prefix)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Entry[] top = new Entry[0];
+        private Set<Entry> terminals;
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        private Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            Node node = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = node;
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+
+        private void offer(Entry entry, int k) {
+            for (Entry e : top) {
+                if (e == entry) {
+                    return;
+                }
+            }
+            int pos = top.length;
+            while (pos > 0 && BY_POPULARITY.compare(entry, top[pos - 1]) < 0) {
+                pos--;
+            }
+            if (pos >= k) {
+                return;
+            }
+            int size = Math.min(top.length + 1, k);
+            Entry[] newTop = new Entry[size];
+            System.arraycopy(top, 0, newTop, 0, pos);
+            newTop[pos] = entry;
+            System.arraycopy(top, pos, newTop, pos + 1, size - pos - 1);
+            top = newTop;
+        }
+
+        private boolean drop(Entry entry) {
+            for (int i = 0; i < top.length; i++) {
+                if (top[i] == entry) {
+                    Entry[] newTop = new Entry[top.length - 1];
+                    System.arraycopy(top, 0, newTop, 0, i);
+                    System.arraycopy(top, i + 1, newTop, i, top.length - i - 1);
+                    top = newTop;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void addTerminal(Entry entry) {
+            if (terminals == null) {
+                terminals = new HashSet<>();
+            }
+            terminals.add(entry);
+        }
+
+        private void removeTerminal(Entry entry) {
+            if (terminals != null) {
+                terminals.remove(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.dscommerce.services;
+
+import org.springframework.http.MediaType;
+
+public enum CatalogFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    CatalogFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static CatalogFormat fromMediaType(String contentType) {
+        return CSV.mediaType.isCompatibleWith(MediaType.parseMediaType(contentType)) ? CSV : NDJSON;
+    }
+
+    public static CatalogFormat fromExtension(String extension) {
+        return CSV.extension.equalsIgnoreCase(extension) ? CSV : NDJSON;
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.dscommerce.services;
 
+import com.example.dscommerce.catalog.CatalogSnapshotStore;
 import com.example.dscommerce.dto.CategoryDTO;
 import com.example.dscommerce.repositories.CategoryRepository;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
@@ -11,13 +13,21 @@ import java.util.List;
 public class CategoryService {
 
     private final CategoryRepository repository;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public CategoryService(CategoryRepository repository) {
+    public CategoryService(CategoryRepository repository, CatalogSnapshotStore catalogSnapshotStore,
+                           PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.catalogSnapshotStore = catalogSnapshotStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
-    @Transactional
     public List<CategoryDTO> findAll() {
-        return repository.findAll().stream().map(CategoryDTO::new).toList();
+        if (catalogSnapshotStore.isEnabled()) {
+            return catalogSnapshotStore.findAllCategories();
+        }
+        return readOnlyTransaction.execute(status -> repository.findAll().stream().map(CategoryDTO::new).toList());
     }
 }
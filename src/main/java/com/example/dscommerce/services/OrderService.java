@@ -1,61 +1,285 @@
 package com.example.dscommerce.services;
 
+import com.example.dscommerce.archive.OrderArchive;
+import com.example.dscommerce.dto.BulkStatusUpdateResultDTO;
+import com.example.dscommerce.dto.CursorPageDTO;
 import com.example.dscommerce.dto.OrderDTO;
 import com.example.dscommerce.dto.OrderItemDTO;
+import com.example.dscommerce.dto.OrderStatusBulkDTO;
+import com.example.dscommerce.dto.OrderStatusDTO;
+import com.example.dscommerce.dto.OrderSummaryDTO;
+import com.example.dscommerce.dto.PaymentDTO;
 import com.example.dscommerce.entities.Order;
 import com.example.dscommerce.entities.OrderItem;
 import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.entities.Payment;
 import com.example.dscommerce.entities.Product;
+import com.example.dscommerce.entities.User;
+import com.example.dscommerce.events.OrderPlacedEvent;
+import com.example.dscommerce.events.OrderStatusChangedEvent;
+import com.example.dscommerce.inventory.StockReservation;
+import com.example.dscommerce.inventory.StockService;
+import com.example.dscommerce.projections.OrderClientProjection;
+import com.example.dscommerce.projections.OrderStatusProjection;
+import com.example.dscommerce.projections.OrderSummaryProjection;
+import com.example.dscommerce.projections.ProductQuantityProjection;
 import com.example.dscommerce.repositories.OrderItemRepository;
 import com.example.dscommerce.repositories.OrderRepository;
+import com.example.dscommerce.repositories.PaymentRepository;
 import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.BadRequestException;
+import com.example.dscommerce.services.exceptions.ConflictException;
 import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.example.dscommerce.util.KeysetCursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int STATUS_CHUNK_SIZE = 1000;
+
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final OrderItemRepository orderItemRepository;
+    private final PaymentRepository paymentRepository;
     private final UserService userService;
     private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockService stockService;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderArchive orderArchive;
 
-    public OrderService(OrderRepository orderRepository, ProductRepository productRepository, OrderItemRepository orderItemRepository, UserService userService, AuthService authService) {
+    public OrderService(OrderRepository orderRepository, ProductRepository productRepository, OrderItemRepository orderItemRepository, PaymentRepository paymentRepository, UserService userService, AuthService authService, ApplicationEventPublisher eventPublisher,
+                        StockService stockService, TransactionTemplate transactionTemplate, OrderArchive orderArchive) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.orderItemRepository = orderItemRepository;
+        this.paymentRepository = paymentRepository;
         this.userService = userService;
         this.authService = authService;
+        this.eventPublisher = eventPublisher;
+        this.stockService = stockService;
+        this.transactionTemplate = transactionTemplate;
+        this.orderArchive = orderArchive;
     }
 
     @Transactional(readOnly = true)
     public OrderDTO findById(Long id) {
-        Order order = orderRepository.findById(id).orElseThrow(
+        Optional<Order> order = orderRepository.findById(id);
+        if (order.isPresent()) {
+            authService.validateSelfOrAdmin(order.get().getClient().getId());
+            return new OrderDTO(order.get());
+        }
+        OrderDTO archived = orderArchive.findById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Resource not found"));
-        authService.validateSelfOrAdmin(order.getClient().getId());
-        return new OrderDTO(order);
+        authService.validateSelfOrAdmin(archived.getClient().getId());
+        return archived;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> findSummaries(Long clientId, String cursor, int size) {
+        if (clientId == null) {
+            clientId = userService.authenticated().getId();
+        } else {
+            authService.validateSelfOrAdmin(clientId);
+        }
+        int pageSize = pageSize(size);
+        KeysetCursor after = resolveCursor(cursor, null);
+        List<OrderSummaryProjection> rows = orderRepository.searchSummariesByClient(
+                clientId, Instant.EPOCH, after.moment(), after.id(), Limit.of(pageSize + 1));
+        return toCursorPage(rows, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> search(OrderStatus status, Long clientId, Instant from, Instant to,
+                                                 String cursor, int size) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("Invalid date range");
+        }
+        Instant since = from == null ? Instant.EPOCH : from;
+        int pageSize = pageSize(size);
+        KeysetCursor after = resolveCursor(cursor, to);
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderSummaryProjection> rows;
+        if (status != null && clientId != null) {
+            rows = orderRepository.searchSummariesByStatusAndClient(status, clientId, since, after.moment(), after.id(), limit);
+        } else if (status != null) {
+            rows = orderRepository.searchSummariesByStatus(status, since, after.moment(), after.id(), limit);
+        } else if (clientId != null) {
+            rows = orderRepository.searchSummariesByClient(clientId, since, after.moment(), after.id(), limit);
+        } else {
+            rows = orderRepository.searchSummaries(since, after.moment(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
+    }
+
+    @Transactional
+    public OrderStatusDTO updateStatus(Long id, OrderStatusDTO dto) {
+        OrderStatusProjection current = orderRepository.findStatusById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Resource not found"));
+        if (dto.getVersion() != null && !dto.getVersion().equals(current.getVersion())) {
+            throw new ConflictException("Order was modified by another request");
+        }
+        if (!current.getStatus().canTransitionTo(dto.getStatus())) {
+            throw new ConflictException("Invalid status transition from " + current.getStatus() + " to " + dto.getStatus());
+        }
+        int updated = orderRepository.updateStatus(id, current.getStatus(), current.getVersion(), dto.getStatus());
+        if (updated == 0) {
+            throw new ConflictException("Order was modified by another request");
+        }
+        if (dto.getStatus() == OrderStatus.CANCELED) {
+            returnStock(List.of(id));
+        }
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(id, current.getClientId(), dto.getStatus()));
+        return new OrderStatusDTO(id, dto.getStatus(), current.getVersion() + 1);
+    }
+
+    @Transactional
+    public PaymentDTO registerPayment(Long id, PaymentDTO dto) {
+        OrderStatusProjection current = orderRepository.findStatusById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Resource not found"));
+        if (current.getStatus() != OrderStatus.WAITING_PAYMENT) {
+            throw new ConflictException("Order is not waiting for payment");
+        }
+        int updated = orderRepository.updateStatus(id, current.getStatus(), current.getVersion(), OrderStatus.PAID);
+        if (updated == 0) {
+            throw new ConflictException("Order was modified by another request");
+        }
+        Instant moment = dto.getMoment() == null ? Instant.now() : dto.getMoment();
+        Payment payment = paymentRepository.save(new Payment(null, moment, orderRepository.getReferenceById(id)));
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(id, current.getClientId(), OrderStatus.PAID));
+        return new PaymentDTO(payment.getId(), payment.getMoment());
     }
 
     @Transactional
+    public BulkStatusUpdateResultDTO updateStatuses(OrderStatusBulkDTO dto) {
+        List<OrderStatus> allowed = Arrays.stream(OrderStatus.values())
+                .filter(status -> status.canTransitionTo(dto.getStatus()))
+                .toList();
+        if (allowed.isEmpty()) {
+            throw new BadRequestException("No order can transition to " + dto.getStatus());
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(dto.getIds()));
+        List<Long> rejected = new ArrayList<>();
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += STATUS_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + STATUS_CHUNK_SIZE, ids.size()));
+            List<Long> moved = orderRepository.lockIdsInStatuses(chunk, allowed);
+            if (!moved.isEmpty()) {
+                updated += orderRepository.updateStatuses(moved, allowed, dto.getStatus());
+                if (dto.getStatus() == OrderStatus.CANCELED) {
+                    returnStock(moved);
+                }
+                for (OrderClientProjection order : orderRepository.searchClientIds(moved)) {
+                    eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getClientId(), dto.getStatus()));
+                }
+            }
+            Set<Long> movedIds = new HashSet<>(moved);
+            chunk.stream().filter(id -> !movedIds.contains(id)).forEach(rejected::add);
+        }
+        return new BulkStatusUpdateResultDTO(updated, rejected);
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private void returnStock(Collection<Long> orderIds) {
+        for (ProductQuantityProjection line : orderItemRepository.searchQuantityPerProductByOrderIds(orderIds)) {
+            productRepository.incrementStock(line.getProductId(), line.getQuantity());
+        }
+    }
+
+    private KeysetCursor resolveCursor(String cursor, Instant to) {
+        return cursor == null || cursor.isBlank() ? KeysetCursor.startingBefore(to) : KeysetCursor.decode(cursor);
+    }
+
+    private CursorPageDTO<OrderSummaryDTO> toCursorPage(List<OrderSummaryProjection> rows, int pageSize) {
+        List<OrderSummaryDTO> content = rows.stream().limit(pageSize).map(OrderSummaryDTO::new).toList();
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            OrderSummaryDTO last = content.getLast();
+            nextCursor = new KeysetCursor(last.getMoment(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(content, nextCursor);
+    }
+
     public OrderDTO insert(OrderDTO dto) {
+        return insert(userService.authenticated(), dto, null);
+    }
+
+    public OrderDTO insert(User client, OrderDTO dto, UUID requestId) {
+        return insert(client, dto, requestId, reserveStock(dto));
+    }
+
+    public StockReservation reserveStock(OrderDTO dto) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderItemDTO itemDto : dto.getItems()) {
+            quantities.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+        }
+        return stockService.reserve(quantities);
+    }
+
+    public OrderDTO insert(User client, OrderDTO dto, UUID requestId, StockReservation reservation) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != STATUS_COMMITTED) {
+                                reservation.release();
+                            }
+                        }
+                    });
+                }
+                return placeOrder(client, dto, requestId);
+            });
+        } catch (RuntimeException e) {
+            reservation.release();
+            throw e;
+        }
+    }
+
+    private OrderDTO placeOrder(User client, OrderDTO dto, UUID requestId) {
         Order order = new Order();
 
         order.setMoment(Instant.now());
         order.setStatus(OrderStatus.WAITING_PAYMENT);
-        order.setClient(userService.authenticated());
+        order.setClient(client);
+        order.setRequestId(requestId);
 
         for (OrderItemDTO itemDto : dto.getItems()) {
             Product product = productRepository.getReferenceById(itemDto.getProductId());
             OrderItem item = new OrderItem(order, product, itemDto.getQuantity(), product.getPrice());
             order.getItems().add(item);
         }
+        order.updateTotals();
         orderRepository.save(order);
         orderItemRepository.saveAll(order.getItems());
 
-        return new OrderDTO(order);
+        OrderDTO result = new OrderDTO(order);
+        eventPublisher.publishEvent(new OrderPlacedEvent(result));
+        return result;
     }
 }
@@ -0,0 +1,215 @@
+package com.example.dscommerce.services;
+
+import com.example.dscommerce.dto.SettlementResultDTO;
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.events.OrderStatusChangedEvent;
+import com.example.dscommerce.projections.OrderClientProjection;
+import com.example.dscommerce.repositories.OrderRepository;
+import com.example.dscommerce.util.CsvUtil;
+import com.example.dscommerce.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class PaymentSettlementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSettlementService.class);
+
+    private static final String SETTLE_ORDER = """
+            UPDATE tb_order SET status = ?, version = version + 1
+            WHERE id = ? AND status = ? AND total = ?
+            """;
+    private static final String INSERT_PAYMENT =
+            "INSERT INTO tb_payment (order_id, moment) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final String inbox;
+
+    public PaymentSettlementService(JdbcTemplate jdbcTemplate, OrderRepository orderRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${payments.settlement.chunk-size}") int chunkSize,
+                                    @Value("${payments.settlement.max-errors}") int maxErrors,
+                                    @Value("${payments.settlement.inbox}") String inbox) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.inbox = inbox;
+    }
+
+    public SettlementResultDTO settle(InputStream input) throws IOException {
+        SettlementResultDTO result = new SettlementResultDTO();
+        List<Settlement> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = readHeader(reader);
+            long lineNumber = 1;
+            String line;
+            while ((line = CsvUtil.readRecord(reader)) != null) {
+                long recordLine = ++lineNumber;
+                lineNumber += line.chars().filter(c -> c == '\n').count();
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.addProcessed();
+                try {
+                    chunk.add(parse(recordLine, line, header));
+                } catch (IllegalArgumentException | ArithmeticException | DateTimeParseException e) {
+                    result.addError(recordLine, "Malformed row", maxErrors);
+                    continue;
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, result);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, result);
+        }
+        logger.info("Payment settlement finished: {} processed, {} settled, {} rejected",
+                result.getProcessed(), result.getSettled(), result.getRejected());
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.settlement.poll-interval}")
+    public void settleInbox() {
+        if (inbox.isBlank()) {
+            return;
+        }
+        Path directory = Path.of(inbox);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.csv")) {
+            stream.forEach(files::add);
+            files.sort(null);
+            Path processed = Files.createDirectories(directory.resolve("processed"));
+            for (Path file : files) {
+                try (InputStream input = Files.newInputStream(file)) {
+                    logger.info("Settling payments from {}", file.getFileName());
+                    settle(input);
+                }
+                Files.move(file, processed.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.error("Could not read settlement inbox {}", directory, e);
+        }
+    }
+
+    private void writeChunk(List<Settlement> chunk, SettlementResultDTO result) {
+        try {
+            List<Settlement> matched = transactionTemplate.execute(status -> {
+                int[][] counts = jdbcTemplate.batchUpdate(SETTLE_ORDER, chunk, chunk.size(), (ps, settlement) -> {
+                    ps.setInt(1, OrderStatus.PAID.ordinal());
+                    ps.setLong(2, settlement.orderId());
+                    ps.setInt(3, OrderStatus.WAITING_PAYMENT.ordinal());
+                    ps.setBigDecimal(4, Money.toDecimal(settlement.amount()));
+                });
+                List<Settlement> settled = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (counts[0][i] > 0) {
+                        settled.add(chunk.get(i));
+                    }
+                }
+                jdbcTemplate.batchUpdate(INSERT_PAYMENT, settled, settled.size(), (ps, settlement) -> {
+                    ps.setLong(1, settlement.orderId());
+                    ps.setTimestamp(2, Timestamp.from(settlement.paidAt()));
+                });
+                if (!settled.isEmpty()) {
+                    List<Long> orderIds = settled.stream().map(Settlement::orderId).toList();
+                    for (OrderClientProjection order : orderRepository.searchClientIds(orderIds)) {
+                        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getClientId(), OrderStatus.PAID));
+                    }
+                }
+                return settled;
+            });
+            result.addSettled(matched.size());
+            Set<Settlement> settled = new HashSet<>(matched);
+            for (Settlement settlement : chunk) {
+                if (!settled.contains(settlement)) {
+                    result.addError(settlement.line(), "No order " + settlement.orderId() + " waiting for this amount", maxErrors);
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Payment settlement chunk rejected", e);
+            for (Settlement settlement : chunk) {
+                result.addError(settlement.line(), "Database error", maxErrors);
+            }
+        }
+        chunk.clear();
+    }
+
+    private Map<String, Integer> readHeader(BufferedReader reader) throws IOException {
+        String line = CsvUtil.readRecord(reader);
+        Map<String, Integer> header = new HashMap<>();
+        if (line != null) {
+            List<String> columns;
+            try {
+                columns = CsvUtil.parseLine(line);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Malformed payment settlement header");
+                return header;
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                header.put(columns.get(i).trim(), i);
+            }
+        }
+        return header;
+    }
+
+    private Settlement parse(long lineNumber, String line, Map<String, Integer> header) {
+        List<String> fields = CsvUtil.parseLine(line);
+        String orderId = field(fields, header, "orderId");
+        String amount = field(fields, header, "amount");
+        String paidAt = field(fields, header, "paidAt");
+        if (orderId == null || amount == null || paidAt == null) {
+            throw new IllegalArgumentException("Missing field");
+        }
+        return new Settlement(lineNumber, Long.parseLong(orderId.trim()),
+                Money.toMinorUnits(new BigDecimal(amount.trim())), Instant.parse(paidAt.trim()));
+    }
+
+    private String field(List<String> fields, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private record Settlement(long line, long orderId, long amount, Instant paidAt) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.dscommerce.services;
+
+import com.example.dscommerce.dto.BulkDeleteResultDTO;
+import com.example.dscommerce.dto.BulkUpdateResultDTO;
+import com.example.dscommerce.dto.CategoryMoveDTO;
+import com.example.dscommerce.dto.PriceAdjustmentDTO;
+import com.example.dscommerce.events.CatalogChangedEvent;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.repositories.CategoryRepository;
+import com.example.dscommerce.repositories.OrderItemRepository;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class ProductBulkService {
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductBulkService(ProductRepository productRepository, CategoryRepository categoryRepository, OrderItemRepository orderItemRepository, ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public BulkUpdateResultDTO adjustPrices(PriceAdjustmentDTO dto) {
+        if (!categoryRepository.existsById(dto.getCategoryId())) {
+            throw new ResourceNotFoundException("Category not found");
+        }
+        BigDecimal factor = BigDecimal.ONE.add(dto.getPercentage().movePointLeft(2));
+        int updated = productRepository.adjustPricesByCategory(dto.getCategoryId(), factor);
+        List<Long> productIds = productRepository.searchIdsByCategory(dto.getCategoryId());
+        eventPublisher.publishEvent(new CatalogChangedEvent("price adjustment", productIds));
+        return new BulkUpdateResultDTO(updated);
+    }
+
+    @Transactional
+    public BulkUpdateResultDTO moveToCategory(CategoryMoveDTO dto) {
+        if (!categoryRepository.existsById(dto.getCategoryId())) {
+            throw new ResourceNotFoundException("Category not found");
+        }
+        int deleted = productRepository.deleteOtherCategories(dto.getMinProductId(), dto.getMaxProductId(), dto.getCategoryId());
+        int inserted = productRepository.insertMissingCategory(dto.getMinProductId(), dto.getMaxProductId(), dto.getCategoryId());
+        List<Long> productIds = productRepository.searchIdsBetween(dto.getMinProductId(), dto.getMaxProductId());
+        eventPublisher.publishEvent(new CatalogChangedEvent("category move", productIds));
+        return new BulkUpdateResultDTO(deleted + inserted);
+    }
+
+    @Transactional
+    public BulkDeleteResultDTO delete(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Long> referenced = new ArrayList<>();
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            Set<Long> chunkReferenced = new HashSet<>(orderItemRepository.searchReferencedProductIds(chunk));
+            List<Long> deletable = chunk.stream().filter(id -> !chunkReferenced.contains(id)).toList();
+            chunk.stream().filter(chunkReferenced::contains).forEach(referenced::add);
+            if (!deletable.isEmpty()) {
+                productRepository.deleteUnreferencedCategories(deletable);
+                deleted += productRepository.deleteUnreferenced(deletable);
+                deletable.forEach(id -> eventPublisher.publishEvent(ProductChangedEvent.deleted(id)));
+            }
+        }
+        return new BulkDeleteResultDTO(deleted, referenced);
+    }
+}
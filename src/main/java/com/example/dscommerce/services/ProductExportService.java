@@ -0,0 +1,80 @@
+package com.example.dscommerce.services;
+
+import com.example.dscommerce.dto.CategoryDTO;
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.projections.ProductExportProjection;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.util.CsvUtil;
+import com.example.dscommerce.util.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ProductExportService {
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(ProductRepository productRepository, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(OutputStream output, CatalogFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == CatalogFormat.CSV) {
+            writer.write("id,name,description,price,imageUrl,categories\n");
+        }
+        try (Stream<ProductExportProjection> rows = productRepository.streamExportRows()) {
+            Iterator<ProductExportProjection> iterator = rows.iterator();
+            ProductDTO current = null;
+            while (iterator.hasNext()) {
+                ProductExportProjection row = iterator.next();
+                if (current == null || !current.getId().equals(row.getId())) {
+                    if (current != null) {
+                        write(writer, current, format);
+                    }
+                    current = new ProductDTO(row.getId(), row.getName(), row.getDescription(), Money.of(row.getPrice()), row.getImgUrl());
+                }
+                if (row.getCategoryId() != null) {
+                    current.getCategories().add(new CategoryDTO(row.getCategoryId(), row.getCategoryName()));
+                }
+            }
+            if (current != null) {
+                write(writer, current, format);
+            }
+        }
+        writer.flush();
+    }
+
+    private void write(Writer writer, ProductDTO dto, CatalogFormat format) throws IOException {
+        if (format == CatalogFormat.CSV) {
+            writer.write(String.valueOf(dto.getId()));
+            writer.write(',');
+            writer.write(CsvUtil.escape(dto.getName()));
+            writer.write(',');
+            writer.write(CsvUtil.escape(dto.getDescription()));
+            writer.write(',');
+            writer.write(dto.getPrice().amount().toPlainString());
+            writer.write(',');
+            writer.write(CsvUtil.escape(dto.getImageUrl()));
+            writer.write(',');
+            writer.write(dto.getCategories().stream().map(c -> String.valueOf(c.getId())).collect(Collectors.joining("|")));
+        } else {
+            writer.write(objectMapper.writeValueAsString(dto));
+        }
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.dscommerce.services;
+
+import com.example.dscommerce.dto.CategoryDTO;
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductImportResultDTO;
+import com.example.dscommerce.entities.Category;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.repositories.CategoryRepository;
+import com.example.dscommerce.services.exceptions.BadRequestException;
+import com.example.dscommerce.util.CsvUtil;
+import com.example.dscommerce.util.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO tb_product (name, description, price, img_url) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_CATEGORY =
+            "INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)";
+
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ProductImportService(CategoryRepository categoryRepository, JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate, Validator validator,
+                                ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                                @Value("${catalog.import.chunk-size}") int chunkSize,
+                                @Value("${catalog.import.max-errors}") int maxErrors) {
+        this.categoryRepository = categoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ProductImportResultDTO importProducts(InputStream input, CatalogFormat format) throws IOException {
+        Set<Long> categoryIds = categoryRepository.findAll().stream().map(Category::getId).collect(Collectors.toSet());
+        ProductImportResultDTO result = new ProductImportResultDTO();
+        List<ProductDTO> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = format == CatalogFormat.CSV ? readHeader(reader) : Map.of();
+            long lineNumber = format == CatalogFormat.CSV ? 1 : 0;
+            String line;
+            while ((line = format == CatalogFormat.CSV ? CsvUtil.readRecord(reader) : reader.readLine()) != null) {
+                long recordLine = ++lineNumber;
+                lineNumber += line.chars().filter(c -> c == '\n').count();
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.addProcessed();
+                try {
+                    ProductDTO dto = format == CatalogFormat.CSV ? parseCsv(line, header) : objectMapper.readValue(line, ProductDTO.class);
+                    String error = validate(dto, categoryIds);
+                    if (error != null) {
+                        result.addError(recordLine, error, maxErrors);
+                        continue;
+                    }
+                    chunk.add(dto);
+                    chunkLines.add(recordLine);
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    result.addError(recordLine, "Malformed row", maxErrors);
+                    continue;
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, chunkLines, result);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, chunkLines, result);
+        }
+        logger.info("Product import finished: {} processed, {} imported, {} rejected",
+                result.getProcessed(), result.getImported(), result.getRejected());
+        return result;
+    }
+
+    private void writeChunk(List<ProductDTO> chunk, List<Long> chunkLines, ProductImportResultDTO result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+                    List<Long> generated = new ArrayList<>(chunk.size());
+                    try (PreparedStatement ps = connection.prepareStatement(INSERT_PRODUCT, Statement.RETURN_GENERATED_KEYS)) {
+                        for (ProductDTO dto : chunk) {
+                            ps.setString(1, dto.getName());
+                            ps.setString(2, dto.getDescription());
+                            ps.setBigDecimal(3, Money.toDecimal(dto.getPrice().minorUnitsIn(Money.CURRENCY)));
+                            ps.setString(4, dto.getImageUrl());
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            while (keys.next()) {
+                                generated.add(keys.getLong(1));
+                            }
+                        }
+                    }
+                    try (PreparedStatement ps = connection.prepareStatement(INSERT_PRODUCT_CATEGORY)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            for (CategoryDTO category : chunk.get(i).getCategories()) {
+                                ps.setLong(1, generated.get(i));
+                                ps.setLong(2, category.getId());
+                                ps.addBatch();
+                            }
+                        }
+                        ps.executeBatch();
+                    }
+                    return generated;
+                });
+                for (int i = 0; i < chunk.size(); i++) {
+                    ProductDTO dto = chunk.get(i);
+                    ProductDTO saved = new ProductDTO(ids.get(i), dto.getName(), dto.getDescription(), dto.getPrice(), dto.getImageUrl());
+                    saved.getCategories().addAll(dto.getCategories());
+                    eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+                }
+            });
+            result.addImported(chunk.size());
+            logger.info("Product import progress: {} processed, {} imported, {} rejected",
+                    result.getProcessed(), result.getImported(), result.getRejected());
+        } catch (DataAccessException e) {
+            logger.warn("Product import chunk rejected", e);
+            for (Long line : chunkLines) {
+                result.addError(line, "Database error", maxErrors);
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private String validate(ProductDTO dto, Set<Long> categoryIds) {
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<ProductDTO> violation = violations.iterator().next();
+            return violation.getPropertyPath() + ": " + violation.getMessage();
+        }
+        for (CategoryDTO category : dto.getCategories()) {
+            if (category.getId() == null || !categoryIds.contains(category.getId())) {
+                return "categories: Category " + category.getId() + " not found";
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Integer> readHeader(BufferedReader reader) throws IOException {
+        String line = CsvUtil.readRecord(reader);
+        Map<String, Integer> header = new HashMap<>();
+        if (line != null) {
+            List<String> columns;
+            try {
+                columns = CsvUtil.parseLine(line);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Malformed CSV header");
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                header.put(columns.get(i).trim(), i);
+            }
+        }
+        return header;
+    }
+
+    private ProductDTO parseCsv(String line, Map<String, Integer> header) {
+        List<String> fields = CsvUtil.parseLine(line);
+        String price = field(fields, header, "price");
+        ProductDTO dto = new ProductDTO(null, field(fields, header, "name"), field(fields, header, "description"),
+                price == null || price.isBlank() ? null : Money.of(new BigDecimal(price.trim()), Money.CURRENCY), field(fields, header, "imageUrl"));
+        String categories = field(fields, header, "categories");
+        if (categories != null) {
+            for (String categoryId : categories.split("\\|")) {
+                if (!categoryId.isBlank()) {
+                    dto.getCategories().add(new CategoryDTO(Long.valueOf(categoryId.trim()), null));
+                }
+            }
+        }
+        return dto;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.dscommerce.services;
+
+import com.example.dscommerce.dto.OrderItemDTO;
+import com.example.dscommerce.entities.ProductSales;
+import com.example.dscommerce.events.OrderPlacedEvent;
+import com.example.dscommerce.repositories.ProductSalesRepository;
+import com.example.dscommerce.util.Money;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ProductSalesCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSalesCounter.class);
+
+    private final ProductSalesRepository productSalesRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<Long, Flushed> flushed = new HashMap<>();
+
+    public ProductSalesCounter(ProductSalesRepository productSalesRepository, TransactionTemplate transactionTemplate) {
+        this.productSalesRepository = productSalesRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (productSalesRepository.count() == 0) {
+                int rows = productSalesRepository.insertFromOrderItems();
+                logger.info("Product sales summary initialized from order items with {} products", rows);
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        for (OrderItemDTO item : event.getOrder().getItems()) {
+            add(item.getProductId(), item.getQuantity(), item.getSubTotal());
+        }
+    }
+
+    public void add(Long productId, long quantity, long revenue) {
+        Counter counter = counters.computeIfAbsent(productId, k -> new Counter());
+        counter.quantity.add(quantity);
+        counter.revenue.add(revenue);
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${catalog.sales.flush-interval}")
+    public synchronized void flush() {
+        List<ProductSales> deltas = new ArrayList<>();
+        Map<Long, Flushed> totals = new HashMap<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            long quantity = entry.getValue().quantity.sum();
+            long revenue = entry.getValue().revenue.sum();
+            Flushed previous = flushed.getOrDefault(entry.getKey(), Flushed.NONE);
+            if (quantity != previous.quantity()) {
+                deltas.add(new ProductSales(entry.getKey(), quantity - previous.quantity(), revenue - previous.revenue()));
+                totals.put(entry.getKey(), new Flushed(quantity, revenue));
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ProductSales delta : deltas) {
+                    if (productSalesRepository.addSales(delta.getProductId(), delta.getQuantity(), Money.toDecimal(delta.getRevenue())) == 0) {
+                        productSalesRepository.save(delta);
+                    }
+                }
+            });
+            flushed.putAll(totals);
+            logger.debug("Flushed sales counters for {} products", deltas.size());
+        } catch (DataAccessException e) {
+            logger.warn("Sales counters flush failed, retrying on next run", e);
+        }
+    }
+
+    private static final class Counter {
+        private final LongAdder quantity = new LongAdder();
+        private final LongAdder revenue = new LongAdder();
+    }
+
+    private record Flushed(long quantity, long revenue) {
+        private static final Flushed NONE = new Flushed(0, 0);
+    }
+}
@@ -1,35 +1,99 @@
 package com.example.dscommerce.services;
 
+import com.example.dscommerce.catalog.CatalogSnapshotStore;
 import com.example.dscommerce.dto.CategoryDTO;
 import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductFacetsDTO;
 import com.example.dscommerce.dto.ProductMinDTO;
+import com.example.dscommerce.dto.ProductSuggestionDTO;
 import com.example.dscommerce.entities.Category;
 import com.example.dscommerce.entities.Product;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.repositories.OrderItemRepository;
 import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.search.ProductFacetIndex;
+import com.example.dscommerce.search.ProductFuzzyIndex;
+import com.example.dscommerce.search.ProductRankingIndex;
+import com.example.dscommerce.search.ProductRelatedIndex;
+import com.example.dscommerce.search.ProductSuggestIndex;
 import com.example.dscommerce.services.exceptions.DatabaseException;
 import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.example.dscommerce.util.Money;
 import jakarta.persistence.EntityNotFoundException;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductFuzzyIndex productFuzzyIndex;
+    private final ProductRankingIndex productRankingIndex;
+    private final ProductRelatedIndex productRelatedIndex;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, OrderItemRepository orderItemRepository, ProductFacetIndex productFacetIndex, ProductSuggestIndex productSuggestIndex, ProductFuzzyIndex productFuzzyIndex, ProductRankingIndex productRankingIndex, ProductRelatedIndex productRelatedIndex, CatalogSnapshotStore catalogSnapshotStore, ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productFacetIndex = productFacetIndex;
+        this.productSuggestIndex = productSuggestIndex;
+        this.productFuzzyIndex = productFuzzyIndex;
+        this.productRankingIndex = productRankingIndex;
+        this.productRelatedIndex = productRelatedIndex;
+        this.catalogSnapshotStore = catalogSnapshotStore;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
-    @Transactional(readOnly = true)
     public ProductDTO findById(Long id) {
-        Product product = productRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Resource not found"));
-        return new ProductDTO(product);
+        if (catalogSnapshotStore.isEnabled()) {
+            return catalogSnapshotStore.findById(id);
+        }
+        return readOnlyTransaction.execute(status -> {
+            Product product = productRepository.findById(id).orElseThrow(
+                    () -> new ResourceNotFoundException("Resource not found"));
+            return new ProductDTO(product);
+        });
+    }
+
+    public Page<ProductMinDTO> findAll(String name, boolean fuzzy, Pageable pageable) {
+        boolean relevance = pageable.getSort().getOrderFor("relevance") != null;
+        boolean bestselling = pageable.getSort().getOrderFor("bestselling") != null;
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (fuzzy && !name.isBlank()) {
+            return readOnlyTransaction.execute(status -> findAllFuzzy(name, pageable));
+        }
+        if (relevance && !name.isBlank()) {
+            return readOnlyTransaction.execute(status -> findAllRanked(name, pageable));
+        }
+        if (bestselling) {
+            return readOnlyTransaction.execute(status -> findAllBestselling(name, unsorted));
+        }
+        Pageable sorted = relevance ? unsorted : pageable;
+        if (catalogSnapshotStore.isEnabled()) {
+            return catalogSnapshotStore.findAll(name, sorted);
+        }
+        return readOnlyTransaction.execute(status -> findAll(name, sorted));
     }
 
     @Transactional(readOnly = true)
@@ -38,12 +102,50 @@ public class ProductService {
         return products.map(ProductMinDTO::new);
     }
 
+    @Transactional(readOnly = true)
+    public Page<ProductMinDTO> findAllBestselling(String name, Pageable pageable) {
+        Page<Product> products = productRepository.searchBestsellingByName(name, pageable);
+        return products.map(ProductMinDTO::new);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductMinDTO> findAllFuzzy(String name, Pageable pageable) {
+        return findPage(productFuzzyIndex.search(name, pageable), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductMinDTO> findAllRanked(String name, Pageable pageable) {
+        return findPage(productRankingIndex.search(name, pageable), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductMinDTO> findRelated(Long id, int limit) {
+        if (!productRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Resource not found");
+        }
+        return findInOrder(productRelatedIndex.related(id, limit));
+    }
+
+    public ProductFacetsDTO facets(String name, List<Long> categoryIds, Integer priceRange) {
+        if (name.isBlank()) {
+            return productFacetIndex.facets(categoryIds, priceRange);
+        }
+        List<Long> productIds = readOnlyTransaction.execute(status -> productRepository.searchIdsByName(name));
+        return productFacetIndex.facets(productIds, categoryIds, priceRange);
+    }
+
+    public List<ProductSuggestionDTO> suggest(String query, int limit) {
+        return productSuggestIndex.suggest(query, limit);
+    }
+
     @Transactional
     public ProductDTO insert(ProductDTO dto) {
         Product entity = new Product();
         copyDtoToEntity(dto, entity);
         entity = productRepository.save(entity);
-        return new ProductDTO(entity);
+        ProductDTO result = new ProductDTO(entity);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+        return result;
     }
 
     @Transactional
@@ -51,35 +153,55 @@ public class ProductService {
         try {
             Product entity = productRepository.getReferenceById(id);
             copyDtoToEntity(dto, entity);
-            return new ProductDTO(entity);
+            ProductDTO result = new ProductDTO(entity);
+            eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+            return result;
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Resource not found");
         }
 
     }
 
-    @Transactional(propagation = Propagation.SUPPORTS)
+    @Transactional
     public void delete(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Resource not found");
-        }
-        try {
-            productRepository.deleteById(id);
-        } catch (DataIntegrityViolationException e) {
+        if (orderItemRepository.existsByProductId(id)) {
             throw new DatabaseException("Data integrity violation");
         }
+        productRepository.deleteUnreferencedCategories(List.of(id));
+        if (productRepository.deleteUnreferenced(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Resource not found");
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    private Page<ProductMinDTO> findPage(Page<Long> ids, Pageable pageable) {
+        return new PageImpl<>(findInOrder(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    private List<ProductMinDTO> findInOrder(List<Long> ids) {
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(ProductMinDTO::new)
+                .toList();
     }
 
     private void copyDtoToEntity(ProductDTO dto, Product entity) {
         entity.setName(dto.getName());
         entity.setDescription(dto.getDescription());
-        entity.setPrice(dto.getPrice());
+        entity.setPrice(dto.getPrice().minorUnitsIn(Money.CURRENCY));
         entity.setImgUrl(dto.getImageUrl());
-        entity.getCategories().clear();
-        for (CategoryDTO categoryDTO : dto.getCategories()) {
-            Category category = new Category();
-            category.setId(categoryDTO.getId());
-            entity.getCategories().add(category);
+        Set<Long> categoryIds = dto.getCategories().stream().map(CategoryDTO::getId).collect(Collectors.toSet());
+        entity.getCategories().removeIf(category -> !categoryIds.contains(category.getId()));
+        Set<Long> currentIds = entity.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+        for (Long categoryId : categoryIds) {
+            if (!currentIds.contains(categoryId)) {
+                Category category = new Category();
+                category.setId(categoryId);
+                entity.getCategories().add(category);
+            }
         }
     }
 }
@@ -0,0 +1,93 @@
+package com.example.dscommerce.services;
+
+import com.example.dscommerce.dto.CategorySalesDTO;
+import com.example.dscommerce.dto.DailySalesDTO;
+import com.example.dscommerce.dto.ProductSalesDTO;
+import com.example.dscommerce.services.exceptions.BadRequestException;
+import com.example.dscommerce.util.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class SalesReportService {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_LIMIT = 100;
+
+    private static final String SELECT_DAILY = """
+            SELECT sales_date, orders, units, revenue FROM tb_sales_daily
+            WHERE sales_date BETWEEN ? AND ? AND orders > 0
+            ORDER BY sales_date
+            """;
+    private static final String SELECT_PRODUCTS = """
+            SELECT s.product_id, p.name, SUM(s.units) AS units, SUM(s.revenue) AS revenue
+            FROM tb_sales_daily_product s INNER JOIN tb_product p ON p.id = s.product_id
+            WHERE s.sales_date BETWEEN ? AND ?
+            GROUP BY s.product_id, p.name
+            HAVING SUM(s.units) > 0
+            ORDER BY revenue DESC, s.product_id
+            LIMIT ?
+            """;
+    private static final String SELECT_CATEGORIES = """
+            SELECT s.category_id, c.name, SUM(s.units) AS units, SUM(s.revenue) AS revenue
+            FROM tb_sales_daily_category s INNER JOIN tb_category c ON c.id = s.category_id
+            WHERE s.sales_date BETWEEN ? AND ?
+            GROUP BY s.category_id, c.name
+            HAVING SUM(s.units) > 0
+            ORDER BY revenue DESC, s.category_id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesReportService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailySalesDTO> findDaily(LocalDate from, LocalDate to) {
+        Range range = range(from, to);
+        return jdbcTemplate.query(SELECT_DAILY, (rs, rowNum) -> new DailySalesDTO(
+                        rs.getObject("sales_date", LocalDate.class), rs.getLong("orders"), rs.getLong("units"),
+                        Money.toMinorUnits(rs.getBigDecimal("revenue"))),
+                range.from(), range.to());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSalesDTO> findTopProducts(LocalDate from, LocalDate to, int limit) {
+        Range range = range(from, to);
+        return jdbcTemplate.query(SELECT_PRODUCTS, (rs, rowNum) -> new ProductSalesDTO(
+                        rs.getLong("product_id"), rs.getString("name"), rs.getLong("units"),
+                        Money.toMinorUnits(rs.getBigDecimal("revenue"))),
+                range.from(), range.to(), limit(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategorySalesDTO> findTopCategories(LocalDate from, LocalDate to, int limit) {
+        Range range = range(from, to);
+        return jdbcTemplate.query(SELECT_CATEGORIES, (rs, rowNum) -> new CategorySalesDTO(
+                        rs.getLong("category_id"), rs.getString("name"), rs.getLong("units"),
+                        Money.toMinorUnits(rs.getBigDecimal("revenue"))),
+                range.from(), range.to(), limit(limit));
+    }
+
+    private static Range range(LocalDate from, LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_RANGE_DAYS - 1) : from;
+        if (start.isAfter(end)) {
+            throw new BadRequestException("Invalid date range");
+        }
+        return new Range(start, end);
+    }
+
+    private static int limit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private record Range(LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.dscommerce.util;
+
+import com.example.dscommerce.services.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record KeysetCursor(Instant moment, Long id) {
+
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    public static KeysetCursor startingBefore(Instant moment) {
+        return moment == null ? new KeysetCursor(END_OF_TIME, Long.MAX_VALUE) : new KeysetCursor(moment, 0L);
+    }
+
+    public String encode() {
+        String raw = moment + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            return new KeysetCursor(Instant.parse(raw.substring(0, comma)), Long.valueOf(raw.substring(comma + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.dscommerce.util;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.Objects;
+
+@JsonSerialize(using = MoneyValueSerializer.class)
+@JsonDeserialize(using = MoneyValueDeserializer.class)
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    public static final Currency CURRENCY = Currency.getInstance("BRL");
+
+    private static final int SCALE = CURRENCY.getDefaultFractionDigits();
+    private static final Comparator<Money> ORDER = Comparator.comparing((Money money) -> money.currency().getCurrencyCode())
+            .thenComparingLong(Money::minorUnits);
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money of(long minorUnits) {
+        return new Money(minorUnits, CURRENCY);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        return new Money(amount.setScale(currency.getDefaultFractionDigits(), RoundingMode.HALF_EVEN)
+                .unscaledValue().longValueExact(), currency);
+    }
+
+    public BigDecimal amount() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    public long minorUnitsIn(Currency expected) {
+        if (!currency.equals(expected)) {
+            throw new IllegalArgumentException("Expected an amount in " + expected + " but got " + currency);
+        }
+        return minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public String toString() {
+        return amount().toPlainString() + " " + currency.getCurrencyCode();
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public static long multiply(long minorUnits, int quantity) {
+        return Math.multiplyExact(minorUnits, quantity);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.dscommerce.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+public class MoneySerializer extends JsonSerializer<Long> {
+
+    @Override
+    public void serialize(Long minorUnits, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeNumber(Money.toDecimal(minorUnits));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.dscommerce.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.Currency;
+
+public class MoneyValueDeserializer extends JsonDeserializer<Money> {
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            return Money.of(p.getDecimalValue(), Money.CURRENCY);
+        }
+        JsonNode node = p.readValueAsTree();
+        JsonNode amount = node.get("amount");
+        if (amount == null || !amount.isNumber()) {
+            return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+        }
+        JsonNode code = node.get("currency");
+        Currency currency = code == null || code.isNull() ? Money.CURRENCY : Currency.getInstance(code.asText());
+        if (!currency.equals(Money.CURRENCY)) {
+            return (Money) ctxt.handleWeirdStringValue(Money.class, code.asText(), "Prices must be in %s", Money.CURRENCY);
+        }
+        return Money.of(amount.decimalValue(), currency);
+    }
+}
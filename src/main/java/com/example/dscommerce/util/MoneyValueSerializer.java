@@ -0,0 +1,18 @@
+package com.example.dscommerce.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+public class MoneyValueSerializer extends JsonSerializer<Money> {
+
+    @Override
+    public void serialize(Money money, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("amount", money.amount());
+        gen.writeStringField("currency", money.currency().getCurrencyCode());
+        gen.writeEndObject();
+    }
+}
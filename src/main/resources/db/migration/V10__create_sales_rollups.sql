@@ -0,0 +1,26 @@
+-- Orders already added to the rollups; canceled orders are subtracted and reset
+ALTER TABLE tb_order ADD COLUMN rolled_up BOOLEAN DEFAULT FALSE NOT NULL;
+CREATE INDEX idx_order_rolled_up ON tb_order (rolled_up, status, id);
+
+CREATE TABLE tb_sales_daily (
+    sales_date DATE NOT NULL PRIMARY KEY,
+    orders BIGINT NOT NULL,
+    units BIGINT NOT NULL,
+    revenue DECIMAL(19, 2) NOT NULL
+);
+
+CREATE TABLE tb_sales_daily_product (
+    sales_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    units BIGINT NOT NULL,
+    revenue DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (sales_date, product_id)
+);
+
+CREATE TABLE tb_sales_daily_category (
+    sales_date DATE NOT NULL,
+    category_id BIGINT NOT NULL,
+    units BIGINT NOT NULL,
+    revenue DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (sales_date, category_id)
+);
@@ -0,0 +1,28 @@
+-- Terminal orders past the retention age are moved here to keep the operational tables small
+CREATE TABLE tb_order_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    moment TIMESTAMP WITHOUT TIME ZONE,
+    status INTEGER,
+    client_id BIGINT,
+    total DECIMAL(19, 2) NOT NULL,
+    item_count INTEGER,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT fk_order_archive_client FOREIGN KEY (client_id) REFERENCES tb_user (id)
+);
+
+CREATE TABLE tb_order_item_archive (
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER,
+    price DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (order_id, product_id),
+    CONSTRAINT fk_order_item_archive_order FOREIGN KEY (order_id) REFERENCES tb_order_archive (id),
+    CONSTRAINT fk_order_item_archive_product FOREIGN KEY (product_id) REFERENCES tb_product (id)
+);
+
+CREATE TABLE tb_payment_archive (
+    order_id BIGINT NOT NULL PRIMARY KEY,
+    moment TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT fk_payment_archive_order FOREIGN KEY (order_id) REFERENCES tb_order_archive (id)
+);
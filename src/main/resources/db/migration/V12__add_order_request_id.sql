@@ -0,0 +1,3 @@
+-- Asynchronous order requests; a replayed request finds the order it already placed
+ALTER TABLE tb_order ADD COLUMN request_id UUID;
+CREATE UNIQUE INDEX uk_order_request_id ON tb_order (request_id);
@@ -0,0 +1,7 @@
+-- Units leased from tb_product.stock into memory; returned to stock on the next start after a crash
+CREATE TABLE tb_stock_lease (
+    product_id BIGINT PRIMARY KEY,
+    quantity BIGINT NOT NULL,
+    since TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT fk_stock_lease_product FOREIGN KEY (product_id) REFERENCES tb_product (id) ON DELETE CASCADE
+);
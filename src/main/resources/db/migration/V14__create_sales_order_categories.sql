@@ -0,0 +1,17 @@
+-- What each rolled-up order added to tb_sales_daily_category, so a cancellation subtracts exactly that
+CREATE TABLE tb_sales_order_category (
+    order_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    sales_date DATE NOT NULL,
+    units BIGINT NOT NULL,
+    revenue DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (order_id, category_id),
+    CONSTRAINT fk_sales_order_category_order FOREIGN KEY (order_id) REFERENCES tb_order (id) ON DELETE CASCADE
+);
+
+INSERT INTO tb_sales_order_category (order_id, category_id, sales_date, units, revenue)
+SELECT o.id, pc.category_id, CAST(o.moment AS DATE), SUM(i.quantity), SUM(i.quantity * i.price)
+FROM tb_order o INNER JOIN tb_order_item i ON i.order_id = o.id
+INNER JOIN tb_product_category pc ON pc.product_id = i.product_id
+WHERE o.rolled_up = TRUE
+GROUP BY o.id, pc.category_id, CAST(o.moment AS DATE);
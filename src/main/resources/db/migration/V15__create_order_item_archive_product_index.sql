@@ -0,0 +1,2 @@
+-- Product deletes check archived order items as well as live ones
+CREATE INDEX idx_order_item_archive_product ON tb_order_item_archive (product_id);
@@ -0,0 +1,3 @@
+-- Catalog prices hold exact amounts like order money; the application maps them to long minor units
+ALTER TABLE tb_product ALTER COLUMN price SET DATA TYPE DECIMAL(19, 2);
+ALTER TABLE tb_product ALTER COLUMN price SET NOT NULL;
@@ -0,0 +1,2 @@
+-- Reservation time of an Idempotency-Key; identifies the holder and lets an abandoned reservation be reclaimed
+ALTER TABLE tb_idempotency_key ADD COLUMN reserved_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
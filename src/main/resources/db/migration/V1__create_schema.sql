@@ -0,0 +1,73 @@
+CREATE TABLE tb_category (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE tb_product (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    description TEXT,
+    price DOUBLE PRECISION NOT NULL,
+    img_url VARCHAR(255)
+);
+
+CREATE TABLE tb_product_category (
+    product_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    PRIMARY KEY (product_id, category_id),
+    CONSTRAINT fk_product_category_product FOREIGN KEY (product_id) REFERENCES tb_product (id),
+    CONSTRAINT fk_product_category_category FOREIGN KEY (category_id) REFERENCES tb_category (id)
+);
+
+CREATE TABLE tb_user (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    phone VARCHAR(255),
+    birth_date DATE,
+    password VARCHAR(255),
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+CREATE TABLE tb_role (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    authority VARCHAR(255)
+);
+
+CREATE TABLE tb_user_role (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_role_user FOREIGN KEY (user_id) REFERENCES tb_user (id),
+    CONSTRAINT fk_user_role_role FOREIGN KEY (role_id) REFERENCES tb_role (id)
+);
+
+CREATE TABLE tb_order (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    moment TIMESTAMP WITHOUT TIME ZONE,
+    status INTEGER,
+    client_id BIGINT,
+    CONSTRAINT fk_order_client FOREIGN KEY (client_id) REFERENCES tb_user (id)
+);
+
+CREATE TABLE tb_order_item (
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER,
+    price DOUBLE PRECISION,
+    PRIMARY KEY (order_id, product_id),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES tb_order (id),
+    CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES tb_product (id)
+);
+
+CREATE TABLE tb_payment (
+    order_id BIGINT NOT NULL PRIMARY KEY,
+    moment TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT fk_payment_order FOREIGN KEY (order_id) REFERENCES tb_order (id)
+);
+
+CREATE TABLE tb_product_sales (
+    product_id BIGINT NOT NULL PRIMARY KEY,
+    quantity BIGINT,
+    revenue DOUBLE PRECISION
+);
@@ -0,0 +1,17 @@
+-- Order history per client, newest first
+CREATE INDEX idx_order_client_moment ON tb_order (client_id, moment);
+
+-- Order lookups and reports by date
+CREATE INDEX idx_order_moment ON tb_order (moment);
+
+-- Product integrity checks and sales per product; covers quantity and price
+CREATE INDEX idx_order_item_product ON tb_order_item (product_id, quantity, price);
+
+-- Products of a category (bulk price updates, facets)
+CREATE INDEX idx_product_category_category ON tb_product_category (category_id, product_id);
+
+-- Role lookups when loading a user's authorities
+CREATE INDEX idx_user_role_role ON tb_user_role (role_id, user_id);
+
+-- Prefix search and ordering by name
+CREATE INDEX idx_product_name ON tb_product (name);
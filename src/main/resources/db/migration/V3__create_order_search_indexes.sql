@@ -0,0 +1,2 @@
+-- Admin order search by status, newest first
+CREATE INDEX idx_order_status_moment ON tb_order (status, moment);
@@ -0,0 +1,10 @@
+ALTER TABLE tb_order ADD COLUMN total DOUBLE PRECISION;
+ALTER TABLE tb_order ADD COLUMN item_count INTEGER;
+
+UPDATE tb_order
+SET total = (SELECT COALESCE(SUM(i.quantity * i.price), 0) FROM tb_order_item i WHERE i.order_id = tb_order.id),
+    item_count = (SELECT COUNT(*) FROM tb_order_item i WHERE i.order_id = tb_order.id);
+
+-- Revenue by date range is answered from the index alone
+DROP INDEX idx_order_moment;
+CREATE INDEX idx_order_moment_total ON tb_order (moment, total);
@@ -0,0 +1,10 @@
+-- Money columns hold exact amounts; the application maps them to long minor units
+ALTER TABLE tb_order_item ALTER COLUMN price SET DATA TYPE DECIMAL(19, 2);
+ALTER TABLE tb_order_item ALTER COLUMN price SET NOT NULL;
+
+ALTER TABLE tb_order ALTER COLUMN total SET DATA TYPE DECIMAL(19, 2);
+ALTER TABLE tb_order ALTER COLUMN total SET NOT NULL;
+ALTER TABLE tb_order ALTER COLUMN item_count SET NOT NULL;
+
+ALTER TABLE tb_product_sales ALTER COLUMN revenue SET DATA TYPE DECIMAL(19, 2);
+ALTER TABLE tb_product_sales ALTER COLUMN revenue SET NOT NULL;
@@ -0,0 +1,9 @@
+CREATE TABLE tb_idempotency_key (
+    idempotency_key VARCHAR(300) PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    response TEXT,
+    expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+-- Expired key eviction
+CREATE INDEX idx_idempotency_key_expires ON tb_idempotency_key (expires_at);
@@ -0,0 +1,3 @@
+-- NULL means the product's stock is not tracked
+ALTER TABLE tb_product ADD COLUMN stock INTEGER;
+ALTER TABLE tb_product ADD CONSTRAINT ck_product_stock CHECK (stock >= 0);
@@ -0,0 +1 @@
+ALTER TABLE tb_order ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
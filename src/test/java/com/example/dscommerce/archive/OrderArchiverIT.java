@@ -0,0 +1,129 @@
+package com.example.dscommerce.archive;
+
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.tests.TokenUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OrderArchiverIT {
+
+    private static final Long DELIVERED_ORDER_ID = 900101L;
+    private static final Long WAITING_ORDER_ID = 900102L;
+    private static final Long ARCHIVED_ONLY_PRODUCT_ID = 2L;
+    private static final Instant OLD_MOMENT = Instant.parse("2000-01-10T12:00:00Z");
+    private static final Instant CUTOFF = Instant.parse("2001-01-01T00:00:00Z");
+
+    @Autowired
+    private OrderArchiver archiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @AfterEach
+    void cleanup() {
+        for (String table : new String[]{"tb_payment_archive", "tb_order_item_archive", "tb_payment", "tb_order_item"}) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE order_id IN (?, ?)", DELIVERED_ORDER_ID, WAITING_ORDER_ID);
+        }
+        jdbcTemplate.update("DELETE FROM tb_order_archive WHERE id IN (?, ?)", DELIVERED_ORDER_ID, WAITING_ORDER_ID);
+        jdbcTemplate.update("DELETE FROM tb_order WHERE id IN (?, ?)", DELIVERED_ORDER_ID, WAITING_ORDER_ID);
+    }
+
+    @Test
+    public void archiveShouldMoveOldDeliveredOrdersAndFindByIdShouldFallBackToArchive() throws Exception {
+        insertOrder(DELIVERED_ORDER_ID, OrderStatus.DELIVERED, true, 1L);
+        jdbcTemplate.update("INSERT INTO tb_payment (order_id, moment) VALUES (?, ?)",
+                DELIVERED_ORDER_ID, Timestamp.from(OLD_MOMENT.plusSeconds(3600)));
+
+        int archived = archiver.archiveOlderThan(CUTOFF);
+
+        Assertions.assertEquals(1, archived);
+        Assertions.assertEquals(0, count("SELECT COUNT(*) FROM tb_order WHERE id = ?"));
+        Assertions.assertEquals(0, count("SELECT COUNT(*) FROM tb_order_item WHERE order_id = ?"));
+        Assertions.assertEquals(1, count("SELECT COUNT(*) FROM tb_order_archive WHERE id = ?"));
+        Assertions.assertEquals(1, count("SELECT COUNT(*) FROM tb_payment_archive WHERE order_id = ?"));
+
+        String adminToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+        ResultActions result = mockMvc.perform(get("/orders/{id}", DELIVERED_ORDER_ID)
+                .header("Authorization", "Bearer " + adminToken)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.id").value(DELIVERED_ORDER_ID));
+        result.andExpect(jsonPath("$.status").value("DELIVERED"));
+        result.andExpect(jsonPath("$.client.id").value(1L));
+        result.andExpect(jsonPath("$.total").value(181.0));
+        result.andExpect(jsonPath("$.items[0].productId").value(1L));
+        result.andExpect(jsonPath("$.items[0].quantity").value(2));
+        result.andExpect(jsonPath("$.payment.moment").exists());
+    }
+
+    @Test
+    public void archiveShouldKeepOrdersThatAreNotFinal() {
+        insertOrder(WAITING_ORDER_ID, OrderStatus.WAITING_PAYMENT, false, 1L);
+
+        archiver.archiveOlderThan(CUTOFF);
+
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_order WHERE id = ?", Integer.class, WAITING_ORDER_ID));
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_order_archive WHERE id = ?", Integer.class, WAITING_ORDER_ID));
+    }
+
+    @Test
+    public void productDeletesShouldKeepProductsReferencedOnlyByArchivedOrders() throws Exception {
+        insertOrder(DELIVERED_ORDER_ID, OrderStatus.DELIVERED, true, ARCHIVED_ONLY_PRODUCT_ID);
+        archiver.archiveOlderThan(CUTOFF);
+        String adminToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+
+        ResultActions single = mockMvc.perform(delete("/products/{id}", ARCHIVED_ONLY_PRODUCT_ID)
+                .header("Authorization", "Bearer " + adminToken));
+        ResultActions bulk = mockMvc.perform(delete("/products")
+                .param("ids", ARCHIVED_ONLY_PRODUCT_ID.toString())
+                .header("Authorization", "Bearer " + adminToken));
+
+        single.andExpect(status().isBadRequest());
+        bulk.andExpect(status().isOk());
+        bulk.andExpect(jsonPath("$.deleted").value(0));
+        bulk.andExpect(jsonPath("$.referenced[0]").value(ARCHIVED_ONLY_PRODUCT_ID));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_product WHERE id = ?", Integer.class, ARCHIVED_ONLY_PRODUCT_ID));
+        Assertions.assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_product_category WHERE product_id = ?", Integer.class, ARCHIVED_ONLY_PRODUCT_ID));
+    }
+
+    private void insertOrder(Long id, OrderStatus status, boolean rolledUp, Long productId) {
+        jdbcTemplate.update("""
+                INSERT INTO tb_order (id, moment, status, client_id, total, item_count, rolled_up)
+                VALUES (?, ?, ?, 1, 181.0, 1, ?)
+                """, id, Timestamp.from(OLD_MOMENT), status.ordinal(), rolledUp);
+        jdbcTemplate.update("INSERT INTO tb_order_item (order_id, product_id, quantity, price) VALUES (?, ?, 2, 90.5)", id, productId);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, DELIVERED_ORDER_ID);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.dscommerce.benchmarks;
+
+import com.example.dscommerce.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class OrderTotalBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int items;
+
+    private Double[] boxedPrices;
+    private Integer[] boxedQuantities;
+    private long[] minorUnitPrices;
+    private int[] quantities;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        boxedPrices = new Double[items];
+        boxedQuantities = new Integer[items];
+        minorUnitPrices = new long[items];
+        quantities = new int[items];
+        for (int i = 0; i < items; i++) {
+            long cents = 100 + random.nextInt(500_000);
+            int quantity = 1 + random.nextInt(5);
+            boxedPrices[i] = cents / 100.0;
+            boxedQuantities[i] = quantity;
+            minorUnitPrices[i] = cents;
+            quantities[i] = quantity;
+        }
+    }
+
+    @Benchmark
+    public Double boxedDoubleTotal() {
+        Double sum = 0.0;
+        for (int i = 0; i < items; i++) {
+            Double subTotal = boxedPrices[i] * boxedQuantities[i];
+            sum += subTotal;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long minorUnitsTotal() {
+        long sum = 0;
+        for (int i = 0; i < items; i++) {
+            sum = Math.addExact(sum, Money.multiply(minorUnitPrices[i], quantities[i]));
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderTotalBenchmark.class.getSimpleName()).build()).run();
+    }
+}
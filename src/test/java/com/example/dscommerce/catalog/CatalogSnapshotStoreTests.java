@@ -0,0 +1,94 @@
+package com.example.dscommerce.catalog;
+
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.entities.Category;
+import com.example.dscommerce.events.ProductChangedEvent;
+import com.example.dscommerce.projections.ProductExportProjection;
+import com.example.dscommerce.repositories.CategoryRepository;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.example.dscommerce.util.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class CatalogSnapshotStoreTests {
+
+    private CatalogSnapshotStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+        CategoryRepository categoryRepository = Mockito.mock(CategoryRepository.class);
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+
+        ProductExportProjection row = Mockito.mock(ProductExportProjection.class);
+        Mockito.when(row.getId()).thenReturn(1L);
+        Mockito.when(row.getName()).thenReturn("PC Gamer");
+        Mockito.when(row.getPrice()).thenReturn(120000L);
+        Mockito.when(row.getCategoryId()).thenReturn(1L);
+        Mockito.when(row.getCategoryName()).thenReturn("Computadores");
+
+        Mockito.when(productRepository.streamExportRows()).thenAnswer(invocation -> Stream.of(row));
+        Mockito.when(categoryRepository.findAll()).thenReturn(List.of(new Category(1L, "Computadores")));
+        Mockito.when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        store = new CatalogSnapshotStore(productRepository, categoryRepository, transactionTemplate, true);
+        store.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void reloadShouldServeProductsFromSnapshot() {
+        Assertions.assertTrue(store.isEnabled());
+        Assertions.assertEquals("PC Gamer", store.findById(1L).getName());
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> store.findById(2L));
+    }
+
+    @Test
+    public void onProductChangedShouldApplyBatchOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        store.onProductChanged(ProductChangedEvent.saved(new ProductDTO(2L, "Smart TV", "Lorem ipsum dolor", Money.of(219000L), "url")));
+        store.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        Assertions.assertEquals("PC Gamer", store.findById(1L).getName());
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> store.findById(2L));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        Assertions.assertEquals(1, synchronizations.size());
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        Assertions.assertEquals("Smart TV", store.findById(2L).getName());
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> store.findById(1L));
+    }
+
+    @Test
+    public void onProductChangedShouldDiscardBatchOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        store.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        Assertions.assertEquals("PC Gamer", store.findById(1L).getName());
+    }
+}
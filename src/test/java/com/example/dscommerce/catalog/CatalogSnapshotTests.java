@@ -0,0 +1,79 @@
+package com.example.dscommerce.catalog;
+
+import com.example.dscommerce.dto.CategoryDTO;
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductMinDTO;
+import com.example.dscommerce.util.Money;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CatalogSnapshotTests {
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = CatalogSnapshot.of(
+                List.of(product(3L, "Macbook Pro", 125000L, 2L), product(1L, "PC Gamer", 120000L, 1L), product(2L, "Smart TV", 219000L, 1L)),
+                List.of(new CategoryDTO(2L, "Eletrônicos"), new CategoryDTO(1L, "Computadores")));
+    }
+
+    @Test
+    public void findByIdShouldReturnProductOrNull() {
+        Assertions.assertEquals("Macbook Pro", snapshot.findById(3L).getName());
+        Assertions.assertNull(snapshot.findById(4L));
+    }
+
+    @Test
+    public void findAllShouldPageInIdOrderWhenUnsorted() {
+        Page<ProductMinDTO> page = snapshot.findAll("", PageRequest.of(1, 2));
+
+        Assertions.assertEquals(3, page.getTotalElements());
+        Assertions.assertEquals(1, page.getContent().size());
+        Assertions.assertEquals(3L, page.getContent().getFirst().getId());
+    }
+
+    @Test
+    public void findAllShouldFilterByNameIgnoringCaseAndSort() {
+        Page<ProductMinDTO> page = snapshot.findAll("a", PageRequest.of(0, 10, Sort.by("price").descending()));
+
+        Assertions.assertEquals(List.of(2L, 3L, 1L), page.getContent().stream().map(ProductMinDTO::getId).toList());
+        Assertions.assertEquals(1, snapshot.findAll("macbook", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    public void findAllCategoriesShouldReturnCategoriesInIdOrder() {
+        Assertions.assertEquals(List.of(1L, 2L), snapshot.findAllCategories().stream().map(CategoryDTO::getId).toList());
+    }
+
+    @Test
+    public void applyShouldReturnNewSnapshotAndKeepPreviousOne() {
+        Map<Long, ProductDTO> changes = new HashMap<>();
+        changes.put(1L, null);
+        changes.put(4L, product(4L, "PC Gamer X", 135000L, 1L));
+        changes.put(3L, product(3L, "Macbook Air", 99900L, 2L));
+
+        CatalogSnapshot next = snapshot.apply(changes);
+
+        Assertions.assertNull(next.findById(1L));
+        Assertions.assertEquals("Macbook Air", next.findById(3L).getName());
+        Assertions.assertEquals("Computadores", next.findById(4L).getCategories().getFirst().getName());
+        Assertions.assertEquals(3, next.size());
+        Assertions.assertEquals("PC Gamer", snapshot.findById(1L).getName());
+        Assertions.assertEquals("Macbook Pro", snapshot.findById(3L).getName());
+    }
+
+    private static ProductDTO product(Long id, String name, long price, Long categoryId) {
+        ProductDTO product = new ProductDTO(id, name, "Lorem ipsum dolor sit amet", Money.of(price), "https://img.com/" + id);
+        product.getCategories().add(new CategoryDTO(categoryId, null));
+        return product;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.dscommerce.checkout;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+public class OrderJournalTests {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void openShouldRecoverRequestsThatWereNotDone() throws Exception {
+        Path path = directory.resolve("orders.log");
+        OrderRequest placed = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(1L, 2)));
+        OrderRequest pending = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(3L, 1)));
+
+        try (OrderJournal journal = new OrderJournal(path, objectMapper)) {
+            Assertions.assertTrue(journal.open().isEmpty());
+            journal.append(placed);
+            journal.append(pending);
+            journal.markDone(placed.id());
+        }
+
+        try (OrderJournal journal = new OrderJournal(path, objectMapper)) {
+            List<OrderRequest> recovered = journal.open();
+
+            Assertions.assertEquals(List.of(pending), recovered);
+        }
+    }
+
+    @Test
+    public void openShouldReplaceJournalWithCompactedCopy() throws Exception {
+        Path path = directory.resolve("orders.log");
+        OrderRequest placed = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(1L, 2)));
+        OrderRequest pending = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(3L, 1)));
+        try (OrderJournal journal = new OrderJournal(path, objectMapper)) {
+            journal.open();
+            journal.append(placed);
+            journal.append(pending);
+            journal.markDone(placed.id());
+        }
+
+        try (OrderJournal journal = new OrderJournal(path, objectMapper)) {
+            journal.open();
+        }
+
+        List<String> lines = Files.readAllLines(path);
+        Assertions.assertEquals(1, lines.size());
+        Assertions.assertTrue(lines.getFirst().contains(pending.id().toString()));
+        Assertions.assertFalse(Files.exists(directory.resolve("orders.log.tmp")));
+    }
+
+    @Test
+    public void openShouldSkipTornLastLine() throws Exception {
+        Path path = directory.resolve("orders.log");
+        OrderRequest pending = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(3L, 1)));
+        try (OrderJournal journal = new OrderJournal(path, objectMapper)) {
+            journal.open();
+            journal.append(pending);
+        }
+        Files.writeString(path, "A {\"id\":", StandardOpenOption.APPEND);
+
+        try (OrderJournal journal = new OrderJournal(path, objectMapper)) {
+            Assertions.assertEquals(List.of(pending), journal.open());
+        }
+    }
+}
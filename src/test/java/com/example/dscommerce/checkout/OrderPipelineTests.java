@@ -0,0 +1,186 @@
+package com.example.dscommerce.checkout;
+
+import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.dto.OrderItemDTO;
+import com.example.dscommerce.dto.OrderRequestStatusDTO;
+import com.example.dscommerce.entities.User;
+import com.example.dscommerce.inventory.StockReservation;
+import com.example.dscommerce.repositories.OrderRepository;
+import com.example.dscommerce.repositories.UserRepository;
+import com.example.dscommerce.services.AuthService;
+import com.example.dscommerce.services.OrderService;
+import com.example.dscommerce.services.UserService;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.example.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.example.dscommerce.tests.UserFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class OrderPipelineTests {
+
+    @TempDir
+    private Path directory;
+
+    private OrderService orderService;
+    private UserService userService;
+    private UserRepository userRepository;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    private User client;
+    private OrderPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        orderService = Mockito.mock(OrderService.class);
+        userService = Mockito.mock(UserService.class);
+        userRepository = Mockito.mock(UserRepository.class);
+        orderRepository = Mockito.mock(OrderRepository.class);
+        transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        client = UserFactory.createCustomClientUser(1L, "maria@gmail.com");
+
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        Mockito.when(userRepository.getReferenceById(1L)).thenReturn(client);
+        Mockito.when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        Mockito.when(orderService.reserveStock(any(OrderDTO.class))).thenReturn(StockReservation.empty());
+        Mockito.when(orderService.insert(any(User.class), any(OrderDTO.class), any(UUID.class), any(StockReservation.class))).thenAnswer(invocation -> {
+            OrderDTO dto = invocation.getArgument(1);
+            Long productId = dto.getItems().getFirst().getProductId();
+            if (productId == 99L) {
+                throw new ResourceNotFoundException("Resource not found");
+            }
+            return new OrderDTO(productId * 10, null, null, null, null);
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void submitShouldAcknowledgeAndPlaceOrderInBackground() throws Exception {
+        pipeline = pipeline(true, 1);
+        pipeline.start();
+
+        OrderRequestStatusDTO accepted = pipeline.submit(order(1L));
+        OrderRequestStatusDTO status = awaitDone(accepted.getId());
+
+        Assertions.assertEquals(OrderRequestState.COMPLETED, status.getState());
+        Assertions.assertEquals(10L, status.getOrderId());
+    }
+
+    @Test
+    public void submitShouldMarkRequestFailedWhenWorkerCannotProcessIt() throws Exception {
+        Mockito.when(orderRepository.findIdByRequestId(any(UUID.class))).thenThrow(new IllegalStateException("database down"));
+        pipeline = pipeline(true, 1);
+        pipeline.start();
+
+        OrderRequestStatusDTO accepted = pipeline.submit(order(1L));
+        OrderRequestStatusDTO status = awaitDone(accepted.getId());
+
+        Assertions.assertEquals(OrderRequestState.FAILED, status.getState());
+        Assertions.assertTrue(Files.readString(directory.resolve("orders.log")).contains("D " + accepted.getId()));
+    }
+
+    @Test
+    public void processShouldPlaceRemainingOrdersWhenOneOrderOfBatchFails() throws Exception {
+        pipeline = pipeline(true, 0);
+        pipeline.start();
+        OrderRequest valid = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(2L, 1)));
+        OrderRequest invalid = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(99L, 1)));
+
+        pipeline.process(List.of(valid, invalid));
+
+        Assertions.assertEquals(OrderRequestState.COMPLETED, pipeline.findStatus(valid.id()).getState());
+        Assertions.assertEquals(20L, pipeline.findStatus(valid.id()).getOrderId());
+        Assertions.assertEquals(OrderRequestState.FAILED, pipeline.findStatus(invalid.id()).getState());
+        Mockito.verify(transactionTemplate, Mockito.times(3)).execute(any());
+    }
+
+    @Test
+    public void processShouldReserveStockBeforeOpeningTheBatchTransaction() throws Exception {
+        pipeline = pipeline(true, 0);
+        pipeline.start();
+        OrderRequest first = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(2L, 1)));
+        OrderRequest second = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(3L, 1)));
+
+        pipeline.process(List.of(first, second));
+
+        InOrder inOrder = Mockito.inOrder(orderService, transactionTemplate);
+        inOrder.verify(orderService, Mockito.times(2)).reserveStock(any(OrderDTO.class));
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(orderService, Mockito.times(2)).insert(any(User.class), any(OrderDTO.class), any(UUID.class), any(StockReservation.class));
+    }
+
+    @Test
+    public void processShouldNotPlaceOrderAgainWhenReplayedRequestWasAlreadyPlaced() throws Exception {
+        pipeline = pipeline(true, 0);
+        pipeline.start();
+        OrderRequest request = new OrderRequest(UUID.randomUUID(), 1L, List.of(new OrderRequest.Item(2L, 1)));
+        Mockito.when(orderRepository.findIdByRequestId(request.id())).thenReturn(Optional.of(20L));
+
+        pipeline.process(List.of(request));
+
+        Assertions.assertEquals(OrderRequestState.COMPLETED, pipeline.findStatus(request.id()).getState());
+        Assertions.assertEquals(20L, pipeline.findStatus(request.id()).getOrderId());
+        Mockito.verify(orderService, Mockito.never()).reserveStock(any(OrderDTO.class));
+    }
+
+    @Test
+    public void submitShouldThrowServiceUnavailableExceptionWhenDisabled() throws Exception {
+        pipeline = pipeline(false, 1);
+        pipeline.start();
+
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> pipeline.submit(order(1L)));
+    }
+
+    @Test
+    public void findStatusShouldThrowResourceNotFoundExceptionWhenRequestIsUnknown() throws Exception {
+        pipeline = pipeline(true, 0);
+        pipeline.start();
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> pipeline.findStatus(UUID.randomUUID()));
+    }
+
+    private OrderPipeline pipeline(boolean enabled, int workers) {
+        return new OrderPipeline(orderService, userService, Mockito.mock(AuthService.class), userRepository,
+                orderRepository, transactionTemplate, new ObjectMapper(), enabled, directory.resolve("orders.log").toString(),
+                100, workers, 10, Duration.ofHours(1));
+    }
+
+    private static OrderDTO order(Long productId) {
+        OrderDTO dto = new OrderDTO();
+        dto.getItems().add(new OrderItemDTO(productId, null, 0, 1, null));
+        return dto;
+    }
+
+    private OrderRequestStatusDTO awaitDone(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        OrderRequestStatusDTO status = pipeline.findStatus(id);
+        while (status.getState() == OrderRequestState.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            status = pipeline.findStatus(id);
+        }
+        return status;
+    }
+}
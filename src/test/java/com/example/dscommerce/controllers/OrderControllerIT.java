@@ -1,9 +1,15 @@
 package com.example.dscommerce.controllers;
 
+import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.dto.OrderStatusBulkDTO;
+import com.example.dscommerce.dto.OrderStatusDTO;
+import com.example.dscommerce.dto.PaymentDTO;
 import com.example.dscommerce.entities.*;
 import com.example.dscommerce.tests.ProductFactory;
 import com.example.dscommerce.tests.TokenUtil;
 import com.example.dscommerce.tests.UserFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,9 +22,17 @@ import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -32,6 +46,9 @@ public class OrderControllerIT {
     @Autowired
     private TokenUtil tokenUtil;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private String adminToken;
     private String clientToken;
     private String invalidToken;
@@ -61,7 +78,7 @@ public class OrderControllerIT {
         order = new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, user, null);
 
         Product product = ProductFactory.createProduct();
-        OrderItem orderItem = new OrderItem(order, product, 2, 10.0);
+        OrderItem orderItem = new OrderItem(order, product, 2, 1000L);
         order.getItems().add(orderItem);
     }
 
@@ -155,4 +172,479 @@ public class OrderControllerIT {
 
         result.andExpect(status().isUnauthorized());
     }
+
+    @Test
+    public void findSummariesShouldReturnAuthenticatedClientOrdersNewestFirst() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content.length()").value(2));
+        result.andExpect(jsonPath("$.content[0].id").value(3L));
+        result.andExpect(jsonPath("$.content[0].status").value("WAITING_PAYMENT"));
+        result.andExpect(jsonPath("$.content[0].total").value(90.5));
+        result.andExpect(jsonPath("$.content[0].itemCount").value(1));
+        result.andExpect(jsonPath("$.content[1].id").value(1L));
+        result.andExpect(jsonPath("$.content[1].total").value(1431.0));
+        result.andExpect(jsonPath("$.content[1].itemCount").value(2));
+        result.andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    public void findSummariesShouldFollowCursorToNextPage() throws Exception {
+        String body = mockMvc.perform(get("/orders")
+                        .param("size", "1")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(3L))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.nextCursor");
+
+        ResultActions result = mockMvc.perform(get("/orders")
+                        .param("size", "1")
+                        .param("cursor", cursor)
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content.length()").value(1));
+        result.andExpect(jsonPath("$.content[0].id").value(1L));
+        result.andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    public void findSummariesShouldReturnClientOrdersWhenAdminLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders")
+                        .param("clientId", "1")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].id").value(3L));
+        result.andExpect(jsonPath("$.content[1].id").value(1L));
+    }
+
+    @Test
+    public void findSummariesShouldReturnForbiddenWhenClientRequestsOtherClientOrders() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders")
+                        .param("clientId", "2")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void findSummariesShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders")
+                        .param("cursor", "not-a-cursor")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findSummariesShouldReturnUnauthorizedWhenNoToken() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void searchShouldReturnOrdersWithStatusWhenAdminLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders/search")
+                        .param("status", "WAITING_PAYMENT")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content.length()").value(1));
+        result.andExpect(jsonPath("$.content[0].id").value(3L));
+        result.andExpect(jsonPath("$.content[0].status").value("WAITING_PAYMENT"));
+    }
+
+    @Test
+    public void searchShouldReturnOrdersInDateRangeWhenAdminLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders/search")
+                        .param("from", "2022-07-01T00:00:00Z")
+                        .param("to", "2022-08-01T00:00:00Z")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content.length()").value(2));
+        result.andExpect(jsonPath("$.content[0].id").value(2L));
+        result.andExpect(jsonPath("$.content[1].id").value(1L));
+    }
+
+    @Test
+    public void searchShouldCombineStatusAndClientFilters() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders/search")
+                        .param("status", "PAID")
+                        .param("clientId", "1")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content.length()").value(1));
+        result.andExpect(jsonPath("$.content[0].id").value(1L));
+    }
+
+    @Test
+    public void searchShouldPageWithCursorWhenAdminLogged() throws Exception {
+        String body = mockMvc.perform(get("/orders/search")
+                        .param("size", "2")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3L))
+                .andExpect(jsonPath("$.content[1].id").value(2L))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.nextCursor");
+
+        ResultActions result = mockMvc.perform(get("/orders/search")
+                        .param("size", "2")
+                        .param("cursor", cursor)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content.length()").value(1));
+        result.andExpect(jsonPath("$.content[0].id").value(1L));
+        result.andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    public void searchShouldReturnBadRequestWhenDateRangeIsInvalid() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders/search")
+                        .param("from", "2022-08-01T00:00:00Z")
+                        .param("to", "2022-07-01T00:00:00Z")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchShouldReturnForbiddenWhenClientLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders/search")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void insertShouldReturnSameOrderWhenIdempotencyKeyIsReplayed() throws Exception {
+        String jsonBody = objectMapper.writeValueAsString(new OrderDTO(order));
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        String body = mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer orderId = JsonPath.read(body, "$.id");
+
+        ResultActions result = mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isCreated());
+        result.andExpect(jsonPath("$.id").value(orderId));
+        result.andExpect(jsonPath("$.total").value(181.0));
+    }
+
+    @Test
+    public void insertShouldReturnConflictWhenIdempotencyKeyIsReusedForDifferentOrder() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .content(objectMapper.writeValueAsString(new OrderDTO(order)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        order.getItems().iterator().next().setQuantity(5);
+
+        ResultActions result = mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .content(objectMapper.writeValueAsString(new OrderDTO(order)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isConflict());
+    }
+
+    @Test
+    public void updateStatusShouldMoveOrderAndIncrementVersionWhenTransitionIsValid() throws Exception {
+        String jsonBody = objectMapper.writeValueAsString(new OrderStatusDTO(null, OrderStatus.SHIPPED, 0L));
+
+        ResultActions result = mockMvc.perform(put("/orders/{id}/status", existingOrderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.id").value(existingOrderId));
+        result.andExpect(jsonPath("$.status").value("SHIPPED"));
+        result.andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    public void updateStatusShouldReturnConflictWhenVersionIsStale() throws Exception {
+        String jsonBody = objectMapper.writeValueAsString(new OrderStatusDTO(null, OrderStatus.SHIPPED, 0L));
+        mockMvc.perform(put("/orders/{id}/status", existingOrderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        jsonBody = objectMapper.writeValueAsString(new OrderStatusDTO(null, OrderStatus.DELIVERED, 0L));
+
+        ResultActions result = mockMvc.perform(put("/orders/{id}/status", existingOrderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isConflict());
+    }
+
+    @Test
+    public void updateStatusShouldReturnConflictWhenTransitionIsInvalid() throws Exception {
+        String jsonBody = objectMapper.writeValueAsString(new OrderStatusDTO(null, OrderStatus.WAITING_PAYMENT, null));
+
+        ResultActions result = mockMvc.perform(put("/orders/{id}/status", 2L)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isConflict());
+    }
+
+    @Test
+    public void updateStatusShouldReturnNotFoundWhenOrderDoesNotExist() throws Exception {
+        String jsonBody = objectMapper.writeValueAsString(new OrderStatusDTO(null, OrderStatus.CANCELED, null));
+
+        ResultActions result = mockMvc.perform(put("/orders/{id}/status", nonExistingOrderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void updateStatusShouldReturnForbiddenWhenClientLogged() throws Exception {
+        String jsonBody = objectMapper.writeValueAsString(new OrderStatusDTO(null, OrderStatus.CANCELED, null));
+
+        ResultActions result = mockMvc.perform(put("/orders/{id}/status", existingOrderId)
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void updateStatusesShouldUpdateAllowedOrdersAndReportRejectedOnes() throws Exception {
+        String jsonBody = objectMapper.writeValueAsString(new OrderStatusBulkDTO(List.of(1L, 2L, 3L, nonExistingOrderId), OrderStatus.CANCELED));
+
+        ResultActions result = mockMvc.perform(put("/orders/status")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.updated").value(2));
+        result.andExpect(jsonPath("$.rejected.length()").value(2));
+        result.andExpect(jsonPath("$.rejected[0]").value(2));
+        result.andExpect(jsonPath("$.rejected[1]").value(nonExistingOrderId));
+    }
+
+    @Test
+    public void registerPaymentShouldMarkOrderPaidWhenWaitingPayment() throws Exception {
+        String jsonBody = objectMapper.writeValueAsString(new PaymentDTO(null, Instant.parse("2022-08-04T10:00:00Z")));
+
+        ResultActions result = mockMvc.perform(post("/orders/{id}/payment", 3L)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.id").value(3L));
+        result.andExpect(jsonPath("$.moment").value("2022-08-04T10:00:00Z"));
+        mockMvc.perform(get("/orders/{id}", 3L)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value("PAID"));
+    }
+
+    @Test
+    public void registerPaymentShouldReturnConflictWhenOrderAlreadyPaid() throws Exception {
+        ResultActions result = mockMvc.perform(post("/orders/{id}/payment", existingOrderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isConflict());
+    }
+
+    @Test
+    public void registerPaymentShouldReturnForbiddenWhenClientLogged() throws Exception {
+        ResultActions result = mockMvc.perform(post("/orders/{id}/payment", 3L)
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void settleShouldPayMatchingOrdersAndRejectTheRest() throws Exception {
+        String body = """
+                orderId,amount,paidAt
+                3,90.50,2022-08-04T10:00:00Z
+                1,1431.00,2022-08-04T10:00:00Z
+                100,10.00,2022-08-04T10:00:00Z
+                not a row
+                """;
+
+        ResultActions result = mockMvc.perform(post("/orders/settlements")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(body)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.processed").value(4));
+        result.andExpect(jsonPath("$.settled").value(1));
+        result.andExpect(jsonPath("$.rejected").value(3));
+        result.andExpect(jsonPath("$.errors[0].line").value(5));
+        result.andExpect(jsonPath("$.errors[1].line").value(3));
+        result.andExpect(jsonPath("$.errors[2].line").value(4));
+    }
+
+    @Test
+    public void settleShouldReadQuotedFieldsSpanningLinesAsOneRow() throws Exception {
+        String body = """
+                orderId,amount,paidAt
+                3,90.50,"2022-08-04
+                T10:00:00Z"
+                100,10.00,2022-08-04T10:00:00Z
+                """;
+
+        ResultActions result = mockMvc.perform(post("/orders/settlements")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(body)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.processed").value(2));
+        result.andExpect(jsonPath("$.settled").value(0));
+        result.andExpect(jsonPath("$.rejected").value(2));
+        result.andExpect(jsonPath("$.errors[0].line").value(2));
+        result.andExpect(jsonPath("$.errors[1].line").value(4));
+    }
+
+    @Test
+    public void settleShouldRejectOrderWhenAmountDoesNotMatchTotal() throws Exception {
+        String body = """
+                orderId,amount,paidAt
+                3,90.00,2022-08-04T10:00:00Z
+                """;
+
+        ResultActions result = mockMvc.perform(post("/orders/settlements")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(body)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.settled").value(0));
+        result.andExpect(jsonPath("$.rejected").value(1));
+    }
+
+    @Test
+    public void streamOrderEventsShouldSendCurrentStatusWhenSelfClientLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders/{id}/events", existingOrderId)
+                .header("Authorization", "Bearer " + clientToken)
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        result.andExpect(request().asyncStarted());
+        result.andExpect(content().string(containsString("event:status")));
+        result.andExpect(content().string(containsString("\"status\":\"PAID\"")));
+    }
+
+    @Test
+    public void streamOrderEventsShouldReturnForbiddenWhenOtherClientLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders/{id}/events", 2L)
+                .header("Authorization", "Bearer " + clientToken)
+                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void streamOrderEventsShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders/{id}/events", nonExistingOrderId)
+                .header("Authorization", "Bearer " + adminToken)
+                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void eventStatsShouldReturnForbiddenWhenClientLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/orders/events/stats")
+                .header("Authorization", "Bearer " + clientToken)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isForbidden());
+    }
 }
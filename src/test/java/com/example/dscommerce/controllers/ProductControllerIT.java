@@ -5,6 +5,7 @@ import com.example.dscommerce.entities.Category;
 import com.example.dscommerce.entities.Product;
 import com.example.dscommerce.tests.TokenUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.transaction.annotation.Propagation;
@@ -19,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -50,6 +53,7 @@ public class ProductControllerIT {
     private Long existingProductId;
     private Long nonExistingProductId;
     private Long dependentProductId;
+    private Long unreferencedProductId;
 
 
     @BeforeEach
@@ -65,9 +69,10 @@ public class ProductControllerIT {
         existingProductId = 1L;
         nonExistingProductId = 20000L;
         dependentProductId = 3L;
+        unreferencedProductId = 4L;
 
         Category category = new Category(2L, "Eletro");
-        product = new Product(26, "Produto 1", "lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium", 399.0, "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg");
+        product = new Product(26, "Produto 1", "lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium", 39900L, "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg");
         product.getCategories().add(category);
         productDTO = new ProductDTO(product);
     }
@@ -80,10 +85,61 @@ public class ProductControllerIT {
         result.andExpect(status().isOk());
         result.andExpect(jsonPath("$.content[0].id").value(3L));
         result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
-        result.andExpect(jsonPath("$.content[0].price").value(1250.0));
+        result.andExpect(jsonPath("$.content[0].price.amount").value(1250.0));
         result.andExpect(jsonPath("$.content[0].imageUrl").value("https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/3-big.jpg"));
     }
 
+    @Test
+    public void findAllShouldReturnCloseMatchesWhenFuzzyAndNameIsMisspelled() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products?name={name}&fuzzy=true", "macbok")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(1));
+        result.andExpect(jsonPath("$.content[0].id").value(3L));
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+    }
+
+    @Test
+    public void findAllShouldReturnBestMatchFirstWhenSortedByRelevance() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products?name={name}&sort=relevance", "pc gamer x")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].id").value(7L));
+        result.andExpect(jsonPath("$.content[0].name").value("PC Gamer X"));
+    }
+
+    @Test
+    public void findAllShouldReturnBestsellersFirstWhenSortedByBestselling() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products?sort=bestselling")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(25));
+        result.andExpect(jsonPath("$.content[0].id").value(1L));
+        result.andExpect(jsonPath("$.content[1].id").value(3L));
+        result.andExpect(jsonPath("$.content[2].id").value(2L));
+    }
+
+    @Test
+    public void findRelatedShouldReturnProductsBoughtTogether() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products/{id}/related", existingProductId)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$[0].id").value(3L));
+        result.andExpect(jsonPath("$[0].name").value("Macbook Pro"));
+    }
+
+    @Test
+    public void findRelatedShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products/{id}/related", nonExistingProductId)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotFound());
+    }
+
     @Test
     public void findAllShouldReturnPageWhenNameIsEmpty() throws Exception {
         ResultActions result = mockMvc.perform(get("/products", productName)
@@ -94,10 +150,47 @@ public class ProductControllerIT {
         result.andExpect(jsonPath("$.pageable.pageSize").value(20));
         result.andExpect(jsonPath("$.content[0].id").value(1L));
         result.andExpect(jsonPath("$.content[0].name").value("The Lord of the Rings"));
-        result.andExpect(jsonPath("$.content[0].price").value(90.5));
+        result.andExpect(jsonPath("$.content[0].price.amount").value(90.5));
         result.andExpect(jsonPath("$.content[0].imageUrl").value("https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg"));
     }
 
+    @Test
+    public void facetsShouldReturnCountsPerCategoryAndPriceRange() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products/facets?categoryId=1")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.total").value(2));
+        result.andExpect(jsonPath("$.categories[0].id").value(1L));
+        result.andExpect(jsonPath("$.categories[0].count").value(2));
+        result.andExpect(jsonPath("$.categories[2].id").value(3L));
+        result.andExpect(jsonPath("$.categories[2].count").value(23));
+        result.andExpect(jsonPath("$.priceRanges[0].count").value(1));
+        result.andExpect(jsonPath("$.priceRanges[1].count").value(1));
+    }
+
+    @Test
+    public void facetsShouldCountOnlyProductsMatchingName() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products/facets?name={name}", "macbook")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.total").value(1));
+        result.andExpect(jsonPath("$.categories.length()").value(1));
+        result.andExpect(jsonPath("$.categories[0].id").value(3L));
+        result.andExpect(jsonPath("$.priceRanges[3].count").value(1));
+    }
+
+    @Test
+    public void suggestShouldReturnProductsMatchingPrefix() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products/suggest?q={q}", "Mac")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$[0].id").value(3L));
+        result.andExpect(jsonPath("$[0].name").value("Macbook Pro"));
+    }
+
     @Test
     public void findByIdShouldReturnProductDTOWhenIdExists() throws Exception {
 
@@ -136,7 +229,8 @@ public class ProductControllerIT {
         result.andExpect(jsonPath("$.id").value(26L));
         result.andExpect(jsonPath("$.name").value("Produto 1"));
         result.andExpect(jsonPath("$.description").value("lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium"));
-        result.andExpect(jsonPath("$.price").value(399.0));
+        result.andExpect(jsonPath("$.price.amount").value(399.0));
+        result.andExpect(jsonPath("$.price.currency").value("BRL"));
         result.andExpect(jsonPath("$.imageUrl").value("https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg"));
         result.andExpect(jsonPath("$.categories[0].id").value(2L));
     }
@@ -179,7 +273,7 @@ public class ProductControllerIT {
 
     @Test
     public void insertShouldReturnUnprocessableEntityWhenAdminLoggedAndInvalidPrice() throws Exception {
-        product.setPrice(-15.0);
+        product.setPrice(-1500L);
         productDTO = new ProductDTO(product);
         String jsonBody = objectMapper.writeValueAsString(productDTO);
 
@@ -254,6 +348,116 @@ public class ProductControllerIT {
         result.andExpect(status().isUnauthorized());
     }
 
+    @Test
+    public void importShouldInsertValidRowsAndReportErrorsWhenAdminLogged() throws Exception {
+        String body = """
+                {"name":"Produto Importado","description":"lorem ipsium lorem ipsium","price":10.0,"categories":[{"id":1}]}
+                {"name":"a","description":"lorem ipsium lorem ipsium","price":10.0,"categories":[{"id":1}]}
+                {"name":"Outro Produto","description":"lorem ipsium lorem ipsium","price":10.0,"categories":[{"id":99}]}
+                not json
+                """;
+
+        ResultActions result = mockMvc.perform(post("/products/import")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(body)
+                        .contentType("application/x-ndjson")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.processed").value(4));
+        result.andExpect(jsonPath("$.imported").value(1));
+        result.andExpect(jsonPath("$.rejected").value(3));
+        result.andExpect(jsonPath("$.errors[0].line").value(2));
+        result.andExpect(jsonPath("$.errors[1].line").value(3));
+        result.andExpect(jsonPath("$.errors[2].line").value(4));
+    }
+
+    @Test
+    public void importShouldInsertCsvRowsWhenAdminLogged() throws Exception {
+        String body = """
+                name,description,price,imageUrl,categories
+                Produto CSV,"lorem ipsium, lorem ipsium",25.5,,1|2
+                """;
+
+        ResultActions result = mockMvc.perform(post("/products/import")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(body)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.imported").value(1));
+        result.andExpect(jsonPath("$.rejected").value(0));
+    }
+
+    @Test
+    public void importShouldReturnForbiddenWhenClientLogged() throws Exception {
+        ResultActions result = mockMvc.perform(post("/products/import")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content("{}")
+                        .contentType("application/x-ndjson")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void exportShouldStreamAllProductsAsCsvWhenAdminLogged() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/products/export?format=csv")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        ResultActions result = mockMvc.perform(asyncDispatch(mvcResult));
+
+        result.andExpect(status().isOk());
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        Assertions.assertEquals(26, lines.length);
+        Assertions.assertEquals("id,name,description,price,imageUrl,categories", lines[0]);
+        Assertions.assertTrue(lines[2].startsWith("2,Smart TV,"));
+        Assertions.assertTrue(lines[2].endsWith(",2|3"));
+    }
+
+    @Test
+    public void exportShouldReturnForbiddenWhenClientLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products/export")
+                .header("Authorization", "Bearer " + clientToken));
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void adjustPricesShouldUpdateAllProductsOfCategoryWhenAdminLogged() throws Exception {
+        ResultActions result = mockMvc.perform(put("/products/prices")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content("{\"categoryId\":1,\"percentage\":10}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.updated").value(2));
+
+        mockMvc.perform(get("/products/{id}", 1L).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.price.amount").value(99.55));
+    }
+
+    @Test
+    public void moveToCategoryShouldReplaceCategoriesOfProductRangeWhenAdminLogged() throws Exception {
+        ResultActions result = mockMvc.perform(put("/products/categories")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content("{\"minProductId\":1,\"maxProductId\":2,\"categoryId\":3}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.updated").value(3));
+
+        mockMvc.perform(get("/products/{id}", 2L).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.categories.length()").value(1))
+                .andExpect(jsonPath("$.categories[0].id").value(3L));
+    }
+
     @Test
     public void updateShouldReturnProductDTOWhenIdExistsAndAdminLogged() throws Exception {
 
@@ -326,7 +530,7 @@ public class ProductControllerIT {
     @Test
     public void updateShouldReturnUnprocessableEntityWhenIdExistsAndAdminLoggedAndPriceIsNegative() throws Exception {
 
-        product.setPrice(-2.0);
+        product.setPrice(-200L);
         productDTO = new ProductDTO(product);
 
         String jsonBody = objectMapper.writeValueAsString(productDTO);
@@ -344,7 +548,7 @@ public class ProductControllerIT {
     @Test
     public void updateShouldReturnUnprocessableEntityWhenIdExistsAndAdminLoggedAndPriceIsZero() throws Exception {
 
-        product.setPrice(0.0);
+        product.setPrice(0L);
         productDTO = new ProductDTO(product);
 
         String jsonBody = objectMapper.writeValueAsString(productDTO);
@@ -359,6 +563,24 @@ public class ProductControllerIT {
         result.andExpect(status().isUnprocessableEntity());
     }
 
+    @Test
+    public void updateShouldReturnBadRequestWhenIdExistsAndAdminLoggedAndPriceIsInAnotherCurrency() throws Exception {
+
+        productDTO = new ProductDTO(product);
+
+        String jsonBody = objectMapper.writeValueAsString(productDTO)
+                .replace("\"currency\":\"BRL\"", "\"currency\":\"USD\"");
+
+        ResultActions result =
+                mockMvc.perform(put("/products/{id}", existingProductId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
     @Test
     public void updateShouldReturnUnprocessableEntityWhenIdExistsAndAdminLoggedAndProductHasNoCategory() throws Exception {
 
@@ -409,7 +631,7 @@ public class ProductControllerIT {
 
     @Test
     public void deleteShouldDoNothingWhenAdminLoggedAndIdExists() throws Exception {
-        ResultActions result = mockMvc.perform(delete("/products/{id}", existingProductId)
+        ResultActions result = mockMvc.perform(delete("/products/{id}", unreferencedProductId)
                         .header("Authorization", "Bearer " + adminToken))
                 .andDo(MockMvcResultHandlers.print());
 
@@ -460,4 +682,28 @@ public class ProductControllerIT {
 
         result.andExpect(status().isBadRequest());
     }
+
+    @Test
+    public void deleteAllShouldDeleteUnreferencedAndReportReferencedWhenAdminLogged() throws Exception {
+        ResultActions result = mockMvc.perform(delete("/products")
+                        .param("ids", "4", "3", "5")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.deleted").value(2));
+        result.andExpect(jsonPath("$.referenced[0]").value(3));
+
+        mockMvc.perform(get("/products/{id}", 4L)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void deleteAllShouldReturnForbiddenWhenClientLogged() throws Exception {
+        ResultActions result = mockMvc.perform(delete("/products")
+                        .param("ids", "4")
+                        .header("Authorization", "Bearer " + clientToken))
+                .andDo(MockMvcResultHandlers.print());
+
+        result.andExpect(status().isForbidden());
+    }
 }
@@ -0,0 +1,107 @@
+package com.example.dscommerce.controllers;
+
+import com.example.dscommerce.tests.TokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class ReportControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    private String adminToken;
+    private String clientToken;
+
+    @BeforeEach
+    void setup() throws Exception {
+        adminToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+        clientToken = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+    }
+
+    @Test
+    public void findDailyShouldReturnRolledUpDaysWhenAdminLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/reports/sales/daily?from=2022-07-01&to=2022-07-31")
+                .header("Authorization", "Bearer " + adminToken)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.length()").value(2));
+        result.andExpect(jsonPath("$[0].date").value("2022-07-25"));
+        result.andExpect(jsonPath("$[0].orders").value(1));
+        result.andExpect(jsonPath("$[0].units").value(3));
+        result.andExpect(jsonPath("$[0].revenue").value(1431.0));
+        result.andExpect(jsonPath("$[1].date").value("2022-07-29"));
+        result.andExpect(jsonPath("$[1].revenue").value(1250.0));
+    }
+
+    @Test
+    public void findTopProductsShouldReturnProductsByRevenueWhenAdminLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/reports/sales/products?from=2022-07-01&to=2022-07-31")
+                .header("Authorization", "Bearer " + adminToken)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$[0].productId").value(3L));
+        result.andExpect(jsonPath("$[0].units").value(2));
+        result.andExpect(jsonPath("$[0].revenue").value(2500.0));
+        result.andExpect(jsonPath("$[1].productId").value(1L));
+        result.andExpect(jsonPath("$[1].units").value(2));
+        result.andExpect(jsonPath("$[1].revenue").value(181.0));
+    }
+
+    @Test
+    public void findTopCategoriesShouldReturnCategoriesByRevenueWhenAdminLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/reports/sales/categories?from=2022-07-01&to=2022-08-31&limit=1")
+                .header("Authorization", "Bearer " + adminToken)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.length()").value(1));
+        result.andExpect(jsonPath("$[0].categoryId").value(3L));
+        result.andExpect(jsonPath("$[0].name").value("Computadores"));
+        result.andExpect(jsonPath("$[0].revenue").value(2500.0));
+    }
+
+    @Test
+    public void findDailyShouldReturnBadRequestWhenRangeIsInverted() throws Exception {
+        ResultActions result = mockMvc.perform(get("/reports/sales/daily?from=2022-08-01&to=2022-07-01")
+                .header("Authorization", "Bearer " + adminToken)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findDailyShouldReturnForbiddenWhenClientLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/reports/sales/daily")
+                .header("Authorization", "Bearer " + clientToken)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void findDailyShouldReturnUnauthorizedWhenNoTokenGiven() throws Exception {
+        ResultActions result = mockMvc.perform(get("/reports/sales/daily")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.dscommerce.idempotency;
+
+import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.entities.Order;
+import com.example.dscommerce.entities.User;
+import com.example.dscommerce.services.UserService;
+import com.example.dscommerce.services.exceptions.ConflictException;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.example.dscommerce.tests.OrderFactory;
+import com.example.dscommerce.tests.UserFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IdempotencyServiceTests {
+
+    private IdempotencyService idempotencyService;
+    private OrderDTO request;
+    private OrderDTO response;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        User client = UserFactory.createCustomClientUser(1L, "maria@gmail.com");
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        idempotencyService = new IdempotencyService(new InMemoryIdempotencyStore(), userService,
+                Duration.ofHours(1), Duration.ofSeconds(5));
+
+        Order order = OrderFactory.createOrder(client);
+        request = new OrderDTO(order);
+        response = new OrderDTO(order);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    public void executeShouldReplayResponseWhenKeyIsReused() {
+        OrderDTO first = idempotencyService.execute("key-1", request, dto -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        OrderDTO second = idempotencyService.execute("key-1", request, dto -> {
+            calls.incrementAndGet();
+            return response;
+        });
+
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertSame(first, second);
+    }
+
+    @Test
+    public void executeShouldThrowConflictExceptionWhenKeyIsReusedForDifferentRequest() {
+        idempotencyService.execute("key-1", request, dto -> response);
+        OrderDTO other = new OrderDTO();
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> idempotencyService.execute("key-1", other, dto -> response));
+    }
+
+    @Test
+    public void executeShouldRunAgainWhenPreviousAttemptFailed() {
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> idempotencyService.execute("key-1", request, dto -> {
+            calls.incrementAndGet();
+            throw new ResourceNotFoundException("Resource not found");
+        }));
+        OrderDTO result = idempotencyService.execute("key-1", request, dto -> {
+            calls.incrementAndGet();
+            return response;
+        });
+
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertSame(response, result);
+    }
+
+    @Test
+    public void executeShouldMakeConcurrentDuplicateWaitForInFlightAttempt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<OrderDTO> first = CompletableFuture.supplyAsync(() -> idempotencyService.execute("key-1", request, dto -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return response;
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<OrderDTO> duplicate = CompletableFuture.supplyAsync(() -> idempotencyService.execute("key-1", request, dto -> {
+            calls.incrementAndGet();
+            return new OrderDTO();
+        }));
+        release.countDown();
+
+        Assertions.assertSame(response, first.get(5, TimeUnit.SECONDS));
+        Assertions.assertSame(response, duplicate.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
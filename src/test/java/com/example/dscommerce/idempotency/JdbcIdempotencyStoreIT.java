@@ -0,0 +1,253 @@
+package com.example.dscommerce.idempotency;
+
+import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.entities.Order;
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.entities.User;
+import com.example.dscommerce.services.UserService;
+import com.example.dscommerce.services.exceptions.ConflictException;
+import com.example.dscommerce.tests.OrderFactory;
+import com.example.dscommerce.tests.TokenUtil;
+import com.example.dscommerce.tests.UserFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "orders.idempotency.store=jdbc")
+@AutoConfigureMockMvc
+public class JdbcIdempotencyStoreIT {
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private IdempotencyService idempotencyService;
+    private User client;
+    private OrderDTO request;
+    private OrderDTO response;
+    private AtomicInteger calls;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        client = UserFactory.createCustomClientUser(1L, "maria@gmail.com");
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        idempotencyService = new IdempotencyService(store, userService, Duration.ofHours(1), Duration.ofSeconds(5));
+
+        Order order = OrderFactory.createOrder(client);
+        request = new OrderDTO(order);
+        response = new OrderDTO(order);
+        calls = new AtomicInteger();
+        prefix = "it-" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_idempotency_key WHERE idempotency_key LIKE ?", "%" + prefix + "%");
+    }
+
+    @Test
+    public void storeShouldBeBackedByJdbc() {
+        Assertions.assertInstanceOf(JdbcIdempotencyStore.class, store);
+    }
+
+    @Test
+    public void reserveShouldReturnExistingFingerprintWhenKeyIsReserved() {
+        Instant now = now();
+
+        Assertions.assertNull(store.reserve(prefix, "a", now, now.plusSeconds(60)));
+        Assertions.assertEquals("a", store.reserve(prefix, "b", now.plusMillis(1), now.plusSeconds(60)));
+    }
+
+    @Test
+    public void executeShouldStoreResponseAndReplayIt() {
+        OrderDTO first = idempotencyService.execute(prefix, request, dto -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        OrderDTO second = idempotencyService.execute(prefix, request, dto -> {
+            calls.incrementAndGet();
+            return new OrderDTO();
+        });
+
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertSame(response, first);
+        Assertions.assertEquals(response.getId(), second.getId());
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_idempotency_key WHERE idempotency_key = ? AND response IS NOT NULL",
+                Integer.class, client.getId() + ":" + prefix));
+    }
+
+    @Test
+    public void executeShouldThrowConflictExceptionWhenKeyIsReusedForDifferentRequest() {
+        idempotencyService.execute(prefix, request, dto -> response);
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> idempotencyService.execute(prefix, new OrderDTO(), dto -> response));
+    }
+
+    @Test
+    @Transactional
+    public void insertShouldReturnConflictWhenKeyIsReusedForDifferentOrder() throws Exception {
+        String token = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+        Order order = new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, client, null);
+        order.getItems().addAll(OrderFactory.createOrder(client).getItems());
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + token)
+                        .header("Idempotency-Key", prefix)
+                        .content(objectMapper.writeValueAsString(new OrderDTO(order)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_idempotency_key WHERE idempotency_key = ? AND response IS NOT NULL",
+                Integer.class, client.getId() + ":" + prefix));
+        order.getItems().iterator().next().setQuantity(5);
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + token)
+                        .header("Idempotency-Key", prefix)
+                        .content(objectMapper.writeValueAsString(new OrderDTO(order)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void executeShouldReleaseKeyWhenActionFails() {
+        Assertions.assertThrows(IllegalStateException.class, () -> idempotencyService.execute(prefix, request, dto -> {
+            throw new IllegalStateException("order failed");
+        }));
+
+        OrderDTO result = idempotencyService.execute(prefix, request, dto -> {
+            calls.incrementAndGet();
+            return response;
+        });
+
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertSame(response, result);
+    }
+
+    @Test
+    public void reserveShouldReplaceKeyWhenTtlExpired() {
+        Instant now = now();
+        store.reserve(prefix, "a", now.minusSeconds(120), now.minusSeconds(60));
+        store.complete(prefix, now.minusSeconds(120), response);
+
+        Assertions.assertNull(store.reserve(prefix, "b", now, now.plusSeconds(60)));
+        Assertions.assertEquals("b", store.reserve(prefix, "c", now, now.plusSeconds(60)));
+    }
+
+    @Test
+    public void evictExpiredShouldDeleteExpiredKeys() {
+        Instant now = now();
+        store.reserve(prefix + ":old", "a", now.minusSeconds(120), now.minusSeconds(60));
+        store.reserve(prefix + ":new", "a", now, now.plusSeconds(60));
+
+        Assertions.assertTrue(store.evictExpired(now) >= 1);
+        Assertions.assertNull(store.reserve(prefix + ":old", "b", now, now.plusSeconds(60)));
+        Assertions.assertEquals("a", store.reserve(prefix + ":new", "b", now, now.plusSeconds(60)));
+    }
+
+    @Test
+    public void reserveShouldReclaimReservationAbandonedLongerThanWaitTimeout() {
+        Instant now = now();
+        Instant abandoned = now.minus(Duration.ofHours(1));
+        store.reserve(prefix, "a", abandoned, now.plusSeconds(3600));
+
+        Assertions.assertNull(store.reserve(prefix, "a", now, now.plusSeconds(3600)));
+        Assertions.assertFalse(store.complete(prefix, abandoned, response));
+        Assertions.assertTrue(store.complete(prefix, now, response));
+        Assertions.assertEquals(response.getId(), store.await(prefix, Duration.ofSeconds(1)).getId());
+    }
+
+    @Test
+    public void reserveShouldNotReclaimCompletedReservation() {
+        Instant now = now();
+        Instant old = now.minus(Duration.ofHours(1));
+        store.reserve(prefix, "a", old, now.plusSeconds(3600));
+        store.complete(prefix, old, response);
+
+        Assertions.assertEquals("a", store.reserve(prefix, "a", now, now.plusSeconds(3600)));
+    }
+
+    @Test
+    public void executeShouldMakeConcurrentWaitersReplayInFlightResponse() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<OrderDTO>> waiters = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<OrderDTO> first = executor.submit(() -> idempotencyService.execute(prefix, request, dto -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return response;
+            }));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 8; i++) {
+                waiters.add(executor.submit(() -> idempotencyService.execute(prefix, request, dto -> {
+                    calls.incrementAndGet();
+                    return new OrderDTO();
+                })));
+            }
+            release.countDown();
+
+            Assertions.assertSame(response, first.get(10, TimeUnit.SECONDS));
+            for (Future<OrderDTO> waiter : waiters) {
+                Assertions.assertEquals(response.getId(), waiter.get(10, TimeUnit.SECONDS).getId());
+            }
+        }
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.dscommerce.inventory;
+
+import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.dto.OrderItemDTO;
+import com.example.dscommerce.dto.StockDTO;
+import com.example.dscommerce.entities.User;
+import com.example.dscommerce.repositories.UserRepository;
+import com.example.dscommerce.services.OrderService;
+import com.example.dscommerce.services.exceptions.ConflictException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order-stock-stress")
+public class OrderStockStressIT {
+
+    private static final int ORDERS = 2000;
+    private static final int CLIENTS = 32;
+    private static final Map<Long, Integer> INITIAL_STOCK = Map.of(6L, 1000, 7L, 500);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void insertShouldNeverLoseOrOversellStockWhenConcurrentOrdersCommitOrRollBack() throws Exception {
+        INITIAL_STOCK.forEach((productId, quantity) -> stockService.updateStock(productId, new StockDTO(productId, quantity)));
+        User client = userRepository.findById(1L).orElseThrow();
+        Map<Long, AtomicLong> committedUnits = new ConcurrentHashMap<>();
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger rolledBack = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger lowestStock = new AtomicInteger(Integer.MAX_VALUE);
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread sampler = Thread.ofVirtual().start(() -> {
+            while (running.get()) {
+                for (Long productId : INITIAL_STOCK.keySet()) {
+                    lowestStock.accumulateAndGet(stockService.findStock(productId).getQuantity(), Math::min);
+                    lowestStock.accumulateAndGet(storedStock(productId), Math::min);
+                }
+            }
+        });
+        try (ExecutorService executor = Executors.newFixedThreadPool(CLIENTS, Thread.ofVirtual().factory())) {
+            for (int i = 0; i < ORDERS; i++) {
+                int outcome = i % 8;
+                executor.submit(() -> {
+                    start.await();
+                    OrderDTO dto = randomOrder();
+                    try {
+                        if (outcome == 0) {
+                            StockReservation reservation = orderService.reserveStock(dto);
+                            transactionTemplate.executeWithoutResult(status -> {
+                                orderService.insert(client, dto, null, reservation);
+                                status.setRollbackOnly();
+                            });
+                            rolledBack.incrementAndGet();
+                        } else if (outcome == 1) {
+                            StockReservation reservation = orderService.reserveStock(dto);
+                            Assertions.assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                                orderService.insert(client, dto, null, reservation);
+                                throw new IllegalStateException("payment declined");
+                            }));
+                            rolledBack.incrementAndGet();
+                        } else {
+                            orderService.insert(client, dto, null);
+                            dto.getItems().forEach(item -> committedUnits
+                                    .computeIfAbsent(item.getProductId(), k -> new AtomicLong()).addAndGet(item.getQuantity()));
+                            committed.incrementAndGet();
+                        }
+                    } catch (ConflictException e) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        running.set(false);
+        sampler.join();
+        stockService.returnAllLeases();
+
+        Assertions.assertTrue(failures.isEmpty(), () -> failures.size() + " orders failed unexpectedly: " + failures.peek());
+        Assertions.assertEquals(ORDERS, committed.get() + rolledBack.get() + rejected.get());
+        Assertions.assertTrue(committed.get() > 0);
+        Assertions.assertTrue(rolledBack.get() > 0);
+        Assertions.assertTrue(rejected.get() > 0);
+        Assertions.assertTrue(lowestStock.get() >= 0);
+        for (Map.Entry<Long, Integer> initial : INITIAL_STOCK.entrySet()) {
+            Long productId = initial.getKey();
+            long sold = soldUnits(productId);
+            Assertions.assertEquals(committedUnits.getOrDefault(productId, new AtomicLong()).get(), sold);
+            Assertions.assertEquals(initial.getValue().longValue(), storedStock(productId) + sold);
+            Assertions.assertTrue(storedStock(productId) >= 0);
+        }
+    }
+
+    private static OrderDTO randomOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OrderDTO dto = new OrderDTO();
+        dto.getItems().add(new OrderItemDTO(6L, null, 0, random.nextInt(1, 3), null));
+        if (random.nextBoolean()) {
+            dto.getItems().add(new OrderItemDTO(7L, null, 0, random.nextInt(1, 3), null));
+        }
+        return dto;
+    }
+
+    private long soldUnits(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM tb_order_item WHERE product_id = ?",
+                Long.class, productId);
+    }
+
+    private int storedStock(Long productId) {
+        List<Integer> rows = jdbcTemplate.queryForList("SELECT stock FROM tb_product WHERE id = ?", Integer.class, productId);
+        return rows.getFirst();
+    }
+}
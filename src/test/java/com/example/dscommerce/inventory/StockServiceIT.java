@@ -0,0 +1,161 @@
+package com.example.dscommerce.inventory;
+
+import com.example.dscommerce.dto.StockDTO;
+import com.example.dscommerce.services.exceptions.ConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+public class StockServiceIT {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+    private Long otherProductId;
+    private Long soldProductId;
+
+    @BeforeEach
+    void setUp() {
+        productId = 6L;
+        otherProductId = 7L;
+        soldProductId = 3L;
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockService.updateStock(productId, new StockDTO(productId, null));
+        stockService.updateStock(otherProductId, new StockDTO(otherProductId, null));
+        stockService.updateStock(soldProductId, new StockDTO(soldProductId, null));
+    }
+
+    @Test
+    public void reserveShouldNeverOversellUnderConcurrentCheckouts() throws InterruptedException {
+        stockService.updateStock(productId, new StockDTO(productId, 100));
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2000; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        stockService.reserve(Map.of(productId, 1));
+                        reserved.incrementAndGet();
+                    } catch (ConflictException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        Assertions.assertEquals(100, reserved.get());
+        Assertions.assertEquals(1900, rejected.get());
+        Assertions.assertEquals(0, stockService.findStock(productId).getQuantity());
+        Assertions.assertEquals(0, storedStock(productId));
+    }
+
+    @Test
+    public void releaseShouldReturnUnitsToAvailableStock() throws InterruptedException {
+        stockService.updateStock(productId, new StockDTO(productId, 100));
+        Queue<StockReservation> reservations = new ConcurrentLinkedQueue<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                executor.submit(() -> reservations.add(stockService.reserve(Map.of(productId, 1))));
+            }
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 40; i++) {
+                StockReservation reservation = reservations.poll();
+                executor.submit(() -> {
+                    reservation.release();
+                    reservation.release();
+                });
+            }
+        }
+
+        Assertions.assertEquals(40, stockService.findStock(productId).getQuantity());
+    }
+
+    @Test
+    public void returnAllLeasesShouldMoveLeasedUnitsBackToDatabase() {
+        stockService.updateStock(productId, new StockDTO(productId, 100));
+        stockService.reserve(Map.of(productId, 1));
+
+        stockService.returnAllLeases();
+
+        Assertions.assertEquals(99, storedStock(productId));
+        Assertions.assertEquals(99, stockService.findStock(productId).getQuantity());
+    }
+
+    @Test
+    public void reserveShouldRecordLeasedUnitsUntilTheyAreReturned() {
+        stockService.updateStock(productId, new StockDTO(productId, 100));
+        stockService.reserve(Map.of(productId, 1));
+
+        Assertions.assertEquals(20L, leasedUnits(productId));
+        stockService.returnAllLeases();
+        Assertions.assertEquals(1L, leasedUnits(productId));
+    }
+
+    @Test
+    public void returnCrashedLeasesShouldReturnLeasedUnitsNotSoldSinceTheLease() {
+        stockService.updateStock(soldProductId, new StockDTO(soldProductId, 10));
+        jdbcTemplate.update("INSERT INTO tb_stock_lease (product_id, quantity, since) VALUES (?, 5, TIMESTAMP '2022-07-27 00:00:00')", soldProductId);
+
+        stockService.returnCrashedLeases();
+
+        Assertions.assertEquals(14, storedStock(soldProductId));
+        Assertions.assertNull(leasedUnits(soldProductId));
+    }
+
+    @Test
+    public void reserveShouldTakeNothingWhenAnyProductIsShort() {
+        stockService.updateStock(productId, new StockDTO(productId, 10));
+        stockService.updateStock(otherProductId, new StockDTO(otherProductId, 1));
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> stockService.reserve(Map.of(productId, 5, otherProductId, 2)));
+        Assertions.assertEquals(10, stockService.findStock(productId).getQuantity());
+        Assertions.assertEquals(1, stockService.findStock(otherProductId).getQuantity());
+    }
+
+    @Test
+    public void reserveShouldIgnoreUntrackedProducts() {
+        StockReservation reservation = stockService.reserve(Map.of(productId, 1000));
+
+        reservation.release();
+        Assertions.assertNull(stockService.findStock(productId).getQuantity());
+    }
+
+    private Long leasedUnits(Long id) {
+        List<Long> rows = jdbcTemplate.queryForList("SELECT quantity FROM tb_stock_lease WHERE product_id = ?", Long.class, id);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    private Integer storedStock(Long id) {
+        List<Integer> rows = jdbcTemplate.queryForList("SELECT stock FROM tb_product WHERE id = ?", Integer.class, id);
+        return rows.getFirst();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.dscommerce.inventory;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StripedCounterTests {
+
+    @Test
+    public void tryTakeShouldTakeFromAnyStripeWhenAmountIsAvailable() {
+        StripedCounter counter = new StripedCounter(4);
+        counter.add(3);
+
+        Assertions.assertTrue(counter.tryTake(2));
+        Assertions.assertEquals(1L, counter.sum());
+    }
+
+    @Test
+    public void tryTakeShouldReturnFalseWhenNoStripeHoldsAmount() {
+        StripedCounter counter = new StripedCounter(4);
+        counter.add(1);
+
+        Assertions.assertFalse(counter.tryTake(2));
+        Assertions.assertEquals(1L, counter.sum());
+    }
+
+    @Test
+    public void drainShouldEmptyAllStripes() {
+        StripedCounter counter = new StripedCounter(4);
+        counter.add(5);
+
+        Assertions.assertEquals(5L, counter.drain());
+        Assertions.assertEquals(0L, counter.sum());
+    }
+
+    @Test
+    public void tryTakeShouldNeverTakeMoreThanWasAddedUnderContention() throws InterruptedException {
+        StripedCounter counter = new StripedCounter(16);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                executor.submit(() -> counter.add(1));
+            }
+        }
+        AtomicInteger taken = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5000; i++) {
+                executor.submit(() -> {
+                    while (counter.sum() > 0) {
+                        if (counter.tryTake(1)) {
+                            taken.incrementAndGet();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+
+        Assertions.assertEquals(1000, taken.get());
+        Assertions.assertEquals(0L, counter.sum());
+    }
+}
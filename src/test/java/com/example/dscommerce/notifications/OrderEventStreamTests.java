@@ -0,0 +1,131 @@
+package com.example.dscommerce.notifications;
+
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.entities.User;
+import com.example.dscommerce.events.OrderStatusChangedEvent;
+import com.example.dscommerce.projections.OrderStatusProjection;
+import com.example.dscommerce.repositories.OrderRepository;
+import com.example.dscommerce.services.AuthService;
+import com.example.dscommerce.services.UserService;
+import com.example.dscommerce.services.exceptions.ForbiddenException;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.example.dscommerce.tests.UserFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public class OrderEventStreamTests {
+
+    private OrderRepository orderRepository;
+    private AuthService authService;
+    private UserService userService;
+    private User client;
+    private OrderEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = Mockito.mock(OrderRepository.class);
+        authService = Mockito.mock(AuthService.class);
+        userService = Mockito.mock(UserService.class);
+        client = UserFactory.createCustomClientUser(1L, "maria@gmail.com");
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        Mockito.when(orderRepository.findStatusById(10L)).thenReturn(Optional.of(statusOf(OrderStatus.WAITING_PAYMENT, client.getId())));
+        Mockito.when(orderRepository.findStatusById(20L)).thenReturn(Optional.empty());
+        stream = new OrderEventStream(orderRepository, authService, userService, Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.close();
+    }
+
+    @Test
+    public void subscribeToOrderShouldSendCurrentStatusAndCountConnection() throws InterruptedException {
+        stream.subscribeToOrder(10L);
+
+        Mockito.verify(authService).validateSelfOrAdmin(client.getId());
+        Assertions.assertEquals(1L, stream.stats().getOpenConnections());
+        awaitEventsSent(1L);
+    }
+
+    @Test
+    public void subscribeToOrderShouldThrowResourceNotFoundExceptionWhenOrderDoesNotExist() {
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> stream.subscribeToOrder(20L));
+        Assertions.assertEquals(0L, stream.stats().getOpenedConnections());
+    }
+
+    @Test
+    public void subscribeToOrderShouldNotRegisterWhenAccessDenied() {
+        Mockito.doThrow(ForbiddenException.class).when(authService).validateSelfOrAdmin(client.getId());
+
+        Assertions.assertThrows(ForbiddenException.class, () -> stream.subscribeToOrder(10L));
+        Assertions.assertEquals(0L, stream.stats().getOpenConnections());
+    }
+
+    @Test
+    public void onOrderStatusChangedShouldPushToOrderAndClientSubscribers() throws InterruptedException {
+        stream.subscribeToOrder(10L);
+        stream.subscribeToClient();
+
+        stream.onOrderStatusChanged(new OrderStatusChangedEvent(10L, client.getId(), OrderStatus.PAID));
+
+        awaitEventsSent(3L);
+        Assertions.assertEquals(2L, stream.stats().getOpenConnections());
+    }
+
+    @Test
+    public void onOrderStatusChangedShouldOnlyReachTheOrderClientWithoutQueryingTheDatabase() {
+        stream.subscribeToClient();
+
+        stream.onOrderStatusChanged(new OrderStatusChangedEvent(10L, 2L, OrderStatus.PAID));
+
+        Mockito.verifyNoInteractions(orderRepository);
+        Assertions.assertEquals(0L, stream.stats().getEventsSent());
+    }
+
+    @Test
+    public void heartbeatShouldReachEveryOpenStream() throws InterruptedException {
+        stream.subscribeToClient();
+        stream.subscribeToClient();
+
+        stream.heartbeat();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (stream.stats().getHeartbeatsSent() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2L, stream.stats().getHeartbeatsSent());
+    }
+
+    private void awaitEventsSent(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (stream.stats().getEventsSent() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(expected, stream.stats().getEventsSent());
+    }
+
+    private OrderStatusProjection statusOf(OrderStatus status, Long clientId) {
+        return new OrderStatusProjection() {
+            @Override
+            public OrderStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 0L;
+            }
+
+            @Override
+            public Long getClientId() {
+                return clientId;
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.dscommerce.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+public class FileOutboxSinkTests {
+
+    @TempDir
+    private Path directory;
+
+    private ObjectMapper objectMapper;
+    private Path path;
+    private FileOutboxSink sink;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+        path = directory.resolve("outbox/messages.ndjson");
+        sink = new FileOutboxSink(path.toString(), objectMapper);
+    }
+
+    @Test
+    public void publishShouldAppendOneLinePerMessageWithPayloadAsJson() throws Exception {
+        sink.publish(List.of(message(1L, "{\"id\":10}")));
+        sink.publish(List.of(message(2L, "{\"id\":11}")));
+
+        List<String> lines = Files.readAllLines(path);
+        Assertions.assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.getFirst());
+        Assertions.assertEquals(1L, first.get("id").asLong());
+        Assertions.assertEquals(10L, first.get("payload").get("id").asLong());
+        Assertions.assertEquals(11L, objectMapper.readTree(lines.getLast()).get("payload").get("id").asLong());
+    }
+
+    private OutboxMessage message(Long id, String payload) {
+        return new OutboxMessage(id, "order", 10L, "OrderPlaced", payload, Instant.parse("2024-01-10T10:00:00Z"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.dscommerce.outbox;
+
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.events.CatalogChangedEvent;
+import com.example.dscommerce.events.OrderStatusChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+public class OutboxIT {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Test
+    public void drainShouldDeliverMessagesWrittenByCommittedTransactions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(900001L, 1L, OrderStatus.PAID));
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(900001L, 1L, OrderStatus.SHIPPED));
+        });
+
+        outboxRelay.drain();
+
+        List<OutboxMessage> delivered = delivered(900001L);
+        Assertions.assertEquals(2, delivered.size());
+        Assertions.assertEquals("OrderStatusChanged", delivered.getFirst().eventType());
+        Assertions.assertTrue(delivered.getFirst().payload().contains("\"PAID\""));
+        Assertions.assertTrue(delivered.getLast().payload().contains("\"SHIPPED\""));
+        Assertions.assertEquals(0, pending(900001L));
+    }
+
+    @Test
+    public void rolledBackTransactionShouldNotWriteMessages() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(900002L, 1L, OrderStatus.PAID));
+            status.setRollbackOnly();
+        });
+
+        outboxRelay.drain();
+
+        Assertions.assertEquals(0, pending(900002L));
+        Assertions.assertTrue(delivered(900002L).isEmpty());
+    }
+
+    @Test
+    public void statsShouldReportDeliveredMessages() {
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(900003L, 1L, OrderStatus.CANCELED));
+
+        outboxRelay.drain();
+
+        Assertions.assertEquals(1, delivered(900003L).size());
+        Assertions.assertTrue(outboxRelay.stats().getDelivered() >= 1);
+        Assertions.assertNotNull(outboxRelay.stats().getLastDelivery());
+    }
+
+    @Test
+    public void catalogChangeShouldWriteProductSavedMessagePerAffectedProduct() {
+        Set<Long> before = sink.recent().stream().map(OutboxMessage::id).collect(Collectors.toSet());
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(new CatalogChangedEvent("price adjustment", List.of(1L, 2L))));
+
+        outboxRelay.drain();
+
+        List<OutboxMessage> delivered = sink.recent().stream()
+                .filter(message -> !before.contains(message.id()) && message.aggregateType().equals("product")).toList();
+        Assertions.assertEquals(List.of(1L, 2L), delivered.stream().map(OutboxMessage::aggregateId).sorted().toList());
+        Assertions.assertTrue(delivered.stream().allMatch(message -> message.eventType().equals("ProductSaved")));
+        Assertions.assertTrue(delivered.getFirst().payload().contains("\"categories\""));
+    }
+
+    private List<OutboxMessage> delivered(Long orderId) {
+        return sink.recent().stream().filter(message -> orderId.equals(message.aggregateId())).toList();
+    }
+
+    private int pending(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_outbox WHERE aggregate_id = ?", Integer.class, orderId);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.dscommerce.reports;
+
+import com.example.dscommerce.entities.OrderStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
+
+@SpringBootTest
+public class SalesRollupIT {
+
+    private static final LocalDate CANCELED_ORDER_DAY = LocalDate.of(2022, 8, 3);
+
+    @Autowired
+    private SalesRollupJob job;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void startupShouldRollUpSeededOrders() {
+        job.rollUp();
+
+        Map<String, Object> day = daily(LocalDate.of(2022, 7, 25));
+        Assertions.assertEquals(1L, ((Number) day.get("orders")).longValue());
+        Assertions.assertEquals(3L, ((Number) day.get("units")).longValue());
+        Assertions.assertEquals(0, new BigDecimal("1431.00").compareTo((BigDecimal) day.get("revenue")));
+        Assertions.assertEquals(0, pendingOrders());
+    }
+
+    @Test
+    public void rollUpShouldSubtractCanceledOrdersAndAddThemBackWhenRestored() {
+        job.rollUp();
+        Map<String, Object> before = daily(CANCELED_ORDER_DAY);
+
+        try {
+            setStatus(3L, OrderStatus.CANCELED);
+            job.rollUp();
+
+            Map<String, Object> after = daily(CANCELED_ORDER_DAY);
+            Assertions.assertEquals(((Number) before.get("orders")).longValue() - 1, ((Number) after.get("orders")).longValue());
+            Assertions.assertEquals(((Number) before.get("units")).longValue() - 1, ((Number) after.get("units")).longValue());
+            Assertions.assertEquals(0, ((BigDecimal) before.get("revenue")).subtract(new BigDecimal("90.50"))
+                    .compareTo((BigDecimal) after.get("revenue")));
+            Assertions.assertFalse(jdbcTemplate.queryForObject(
+                    "SELECT rolled_up FROM tb_order WHERE id = 3", Boolean.class));
+        } finally {
+            setStatus(3L, OrderStatus.WAITING_PAYMENT);
+            job.rollUp();
+        }
+
+        Map<String, Object> restored = daily(CANCELED_ORDER_DAY);
+        Assertions.assertEquals(before.get("orders"), restored.get("orders"));
+        Assertions.assertEquals(0, ((BigDecimal) before.get("revenue")).compareTo((BigDecimal) restored.get("revenue")));
+    }
+
+    @Test
+    public void rollUpShouldSubtractWhatCanceledOrderAddedToCategoriesAfterProductChangedCategory() {
+        job.rollUp();
+        BigDecimal categoryOneBefore = categoryRevenue(CANCELED_ORDER_DAY, 1L);
+        BigDecimal categoryTwoBefore = categoryRevenue(CANCELED_ORDER_DAY, 2L);
+
+        try {
+            jdbcTemplate.update("UPDATE tb_product_category SET category_id = 2 WHERE product_id = 1 AND category_id = 1");
+            setStatus(3L, OrderStatus.CANCELED);
+            job.rollUp();
+
+            Assertions.assertEquals(0, categoryOneBefore.subtract(new BigDecimal("90.50"))
+                    .compareTo(categoryRevenue(CANCELED_ORDER_DAY, 1L)));
+            Assertions.assertEquals(0, categoryTwoBefore.compareTo(categoryRevenue(CANCELED_ORDER_DAY, 2L)));
+        } finally {
+            jdbcTemplate.update("UPDATE tb_product_category SET category_id = 1 WHERE product_id = 1 AND category_id = 2");
+            setStatus(3L, OrderStatus.WAITING_PAYMENT);
+            job.rollUp();
+        }
+
+        Assertions.assertEquals(0, categoryOneBefore.compareTo(categoryRevenue(CANCELED_ORDER_DAY, 1L)));
+    }
+
+    private Map<String, Object> daily(LocalDate day) {
+        return jdbcTemplate.queryForMap("SELECT orders, units, revenue FROM tb_sales_daily WHERE sales_date = ?",
+                Date.valueOf(day));
+    }
+
+    private BigDecimal categoryRevenue(LocalDate day, Long categoryId) {
+        return jdbcTemplate.query("SELECT revenue FROM tb_sales_daily_category WHERE sales_date = ? AND category_id = ?",
+                        (rs, rowNum) -> rs.getBigDecimal(1), Date.valueOf(day), categoryId)
+                .stream().findFirst().orElse(BigDecimal.ZERO);
+    }
+
+    private int pendingOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_order WHERE rolled_up = FALSE AND status <> ?",
+                Integer.class, OrderStatus.CANCELED.ordinal());
+    }
+
+    private void setStatus(Long orderId, OrderStatus status) {
+        jdbcTemplate.update("UPDATE tb_order SET status = ? WHERE id = ?", status.ordinal(), orderId);
+    }
+}
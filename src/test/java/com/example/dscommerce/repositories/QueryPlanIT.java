@@ -0,0 +1,145 @@
+package com.example.dscommerce.repositories;
+
+import com.example.dscommerce.entities.OrderStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.dscommerce.repositories.QueryPlanIT$RecordingInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanIT {
+
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* PUBLIC\\.\\w+(\\.tableScan)? \\*/");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @BeforeEach
+    void setUp() {
+        RecordingInspector.statements.clear();
+        RecordingInspector.thread = Thread.currentThread();
+    }
+
+    Stream<Named<Runnable>> hotQueries() {
+        Instant from = Instant.parse("2022-07-01T00:00:00Z");
+        Instant moment = Instant.parse("2022-08-01T00:00:00Z");
+        return Stream.of(
+                Named.of("ProductRepository.findById", () -> productRepository.findById(1L)),
+                Named.of("ProductRepository.searchFacetRows", () -> productRepository.searchFacetRows(1L, 10L)),
+                Named.of("ProductRepository.searchNameRows", () -> productRepository.searchNameRows(1L, 10L)),
+                Named.of("ProductRepository.searchTextRows", () -> productRepository.searchTextRows(1L, 10L)),
+                Named.of("ProductRepository.findStock", () -> productRepository.findStock(1L)),
+                Named.of("ProductRepository.searchIdsByCategory", () -> productRepository.searchIdsByCategory(1L)),
+                Named.of("ProductRepository.searchIdsBetween", () -> productRepository.searchIdsBetween(1L, 10L)),
+                Named.of("OrderRepository.findById", () -> orderRepository.findById(1L)),
+                Named.of("OrderRepository.findStatusById", () -> orderRepository.findStatusById(1L)),
+                Named.of("OrderRepository.searchClientIds", () -> orderRepository.searchClientIds(List.of(1L, 2L))),
+                Named.of("OrderRepository.findIdByRequestId", () -> orderRepository.findIdByRequestId(UUID.randomUUID())),
+                Named.of("OrderRepository.searchBasketRows", () -> orderRepository.searchBasketRows(1L, 10L)),
+                Named.of("OrderRepository.searchSummaries", () -> orderRepository.searchSummaries(from, moment, Long.MAX_VALUE, Limit.of(20))),
+                Named.of("OrderRepository.searchSummariesByClient", () -> orderRepository.searchSummariesByClient(1L, from, moment, Long.MAX_VALUE, Limit.of(20))),
+                Named.of("OrderRepository.searchSummariesByStatus", () -> orderRepository.searchSummariesByStatus(OrderStatus.PAID, from, moment, Long.MAX_VALUE, Limit.of(20))),
+                Named.of("OrderRepository.lockIdsInStatuses", () -> transactionTemplate.executeWithoutResult(status -> orderRepository.lockIdsInStatuses(List.of(1L, 2L), Set.of(OrderStatus.PAID)))),
+                Named.of("OrderItemRepository.existsByProductId", () -> orderItemRepository.existsByProductId(1L)),
+                Named.of("OrderItemRepository.searchReferencedProductIds", () -> orderItemRepository.searchReferencedProductIds(List.of(1L, 2L, 3L))),
+                Named.of("UserRepository.searchUserAndRolesByEmail", () -> userRepository.searchUserAndRolesByEmail("maria@gmail.com")),
+                Named.of("UserRepository.findByEmail", () -> userRepository.findByEmail("maria@gmail.com")),
+                Named.of("PaymentRepository.findById", () -> paymentRepository.findById(1L)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("hotQueries")
+    public void hotQueriesShouldNotScanWholeTables(Runnable query) {
+        query.run();
+
+        Assertions.assertFalse(RecordingInspector.statements.isEmpty());
+        for (String sql : RecordingInspector.statements) {
+            String plan = explain(sql);
+            Assertions.assertFalse(FULL_SCAN.matcher(plan).find(), plan);
+        }
+    }
+
+    @Test
+    public void searchByNameShouldPageInNameOrderAndCountFromTheNameIndex() {
+        productRepository.searchByName("PC", PageRequest.of(0, 12, Sort.by("name")));
+
+        List<String> plans = RecordingInspector.statements.stream().map(this::explain).toList();
+        Assertions.assertEquals(2, plans.size());
+        Assertions.assertTrue(plans.get(0).contains("/* index sorted */"), plans.get(0));
+        Assertions.assertTrue(plans.get(1).contains("/* PUBLIC.IDX_PRODUCT_NAME */"), plans.get(1));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                List<String> rows = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.add(resultSet.getString(1));
+                    }
+                }
+                return String.join("\n", rows);
+            }
+        });
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+        static volatile Thread thread;
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == thread) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductFacetsDTO;
+import com.example.dscommerce.entities.Category;
+import com.example.dscommerce.entities.Product;
+import com.example.dscommerce.projections.ProductFacetProjection;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.example.dscommerce.tests.CategoryFactory;
+import com.example.dscommerce.tests.ProductFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+public class ProductFacetIndexTests {
+
+    private ProductRepository productRepository;
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = Mockito.mock(ProductRepository.class);
+        Mockito.when(productRepository.findMaxId()).thenReturn(null);
+
+        index = new ProductFacetIndex(productRepository, "0,100,500", 1024 * 1024, 1000);
+        index.rebuild();
+
+        index.put(createProduct(1L, 5000L, 1L));
+        index.put(createProduct(2L, 15000L, 1L, 2L));
+        index.put(createProduct(3L, 70000L, 2L));
+    }
+
+    @Test
+    public void facetsShouldCountAllProductsWhenNoFilter() {
+        ProductFacetsDTO result = index.facets(null, null);
+
+        Assertions.assertEquals(3, result.getTotal());
+        Assertions.assertEquals(2, result.getCategories().size());
+        Assertions.assertEquals(2, result.getCategories().get(0).getCount());
+        Assertions.assertEquals(2, result.getCategories().get(1).getCount());
+        Assertions.assertEquals(1, result.getPriceRanges().get(0).getCount());
+        Assertions.assertEquals(1, result.getPriceRanges().get(1).getCount());
+        Assertions.assertEquals(1, result.getPriceRanges().get(2).getCount());
+        Assertions.assertNull(result.getPriceRanges().get(2).getMax());
+    }
+
+    @Test
+    public void facetsShouldApplyCategoryAndPriceFilters() {
+        ProductFacetsDTO result = index.facets(List.of(2L), 1);
+
+        Assertions.assertEquals(1, result.getTotal());
+        Assertions.assertEquals(1, result.getCategories().get(0).getCount());
+        Assertions.assertEquals(0, result.getPriceRanges().get(0).getCount());
+        Assertions.assertEquals(1, result.getPriceRanges().get(2).getCount());
+    }
+
+    @Test
+    public void putShouldMoveProductWhenCategoriesAndPriceChange() {
+        index.put(createProduct(1L, 60000L, 2L));
+
+        ProductFacetsDTO result = index.facets(List.of(1L), null);
+
+        Assertions.assertEquals(1, result.getTotal());
+        Assertions.assertEquals(0, result.getPriceRanges().get(0).getCount());
+    }
+
+    @Test
+    public void removeShouldDropProductFromAllFacets() {
+        index.remove(3L);
+
+        ProductFacetsDTO result = index.facets(null, null);
+
+        Assertions.assertEquals(2, result.getTotal());
+        Assertions.assertEquals(0, result.getPriceRanges().get(2).getCount());
+    }
+
+    @Test
+    public void facetsShouldThrowServiceUnavailableExceptionWhenBudgetExceeded() {
+        ProductFacetIndex smallIndex = new ProductFacetIndex(productRepository, "0", 1, 1000);
+        smallIndex.rebuild();
+        smallIndex.put(createProduct(1L, 1000L, 1L));
+
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> smallIndex.facets(null, null));
+    }
+
+    @Test
+    public void facetsShouldOnlyCountMatchingProductsWhenProductIdsGiven() {
+        ProductFacetsDTO result = index.facets(List.of(2L, 3L, 42L), null, null);
+
+        Assertions.assertEquals(2, result.getTotal());
+        Assertions.assertEquals(1, result.getCategories().get(0).getCount());
+        Assertions.assertEquals(0, result.getPriceRanges().get(0).getCount());
+    }
+
+    @Test
+    public void rebuildShouldKeepChangesMadeWhileLoading() {
+        Mockito.when(productRepository.findMaxId()).thenReturn(3L);
+        Mockito.when(productRepository.searchFacetRows(0L, 999L)).thenAnswer(invocation -> {
+            index.put(createProduct(4L, 5000L, 2L));
+            index.remove(3L);
+            return List.of(facetRow(1L, "50.00", 1L), facetRow(3L, "700.00", 2L));
+        });
+
+        index.rebuild();
+
+        ProductFacetsDTO result = index.facets(null, null);
+        Assertions.assertEquals(2, result.getTotal());
+        Assertions.assertEquals(2, result.getPriceRanges().get(0).getCount());
+        Assertions.assertEquals(0, result.getPriceRanges().get(2).getCount());
+    }
+
+    @Test
+    public void retryRebuildShouldEnableIndexWhenCatalogFitsBudgetAgain() {
+        ProductFacetIndex smallIndex = new ProductFacetIndex(productRepository, "0", 64, 1000);
+        List<ProductFacetProjection> largeCatalog = LongStream.range(0, 1000).filter(id -> id % 2 == 0)
+                .mapToObj(id -> facetRow(id, "10.00", id)).toList();
+        List<ProductFacetProjection> smallCatalog = List.of(facetRow(1L, "10.00", null));
+        Mockito.when(productRepository.findMaxId()).thenReturn(999L);
+        Mockito.when(productRepository.searchFacetRows(0L, 999L)).thenReturn(largeCatalog);
+        smallIndex.rebuild();
+        Assertions.assertFalse(smallIndex.isAvailable());
+
+        Mockito.when(productRepository.searchFacetRows(0L, 999L)).thenReturn(smallCatalog);
+        smallIndex.retryRebuild();
+
+        Assertions.assertTrue(smallIndex.isAvailable());
+        Assertions.assertEquals(1, smallIndex.facets(null, null).getTotal());
+    }
+
+    private static ProductFacetProjection facetRow(Long id, String price, Long categoryId) {
+        ProductFacetProjection row = Mockito.mock(ProductFacetProjection.class);
+        Mockito.when(row.getId()).thenReturn(id);
+        Mockito.when(row.getPrice()).thenReturn(new BigDecimal(price));
+        Mockito.when(row.getCategoryId()).thenReturn(categoryId);
+        return row;
+    }
+
+    private ProductDTO createProduct(Long id, long price, Long... categoryIds) {
+        Product product = ProductFactory.createProduct();
+        product.setId(id);
+        product.setPrice(price);
+        product.getCategories().clear();
+        for (Long categoryId : categoryIds) {
+            Category category = CategoryFactory.createCategory(categoryId, "Category " + categoryId);
+            product.getCategories().add(category);
+        }
+        return new ProductDTO(product);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.projections.ProductNameProjection;
+import com.example.dscommerce.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class ProductFuzzyIndexTests {
+
+    private ProductFuzzyIndex index;
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = Mockito.mock(ProductRepository.class);
+
+        List<ProductNameProjection> names = List.of(
+                nameRow(1L, "Macbook Pro"),
+                nameRow(2L, "Mac Mini"),
+                nameRow(3L, "PC Gamer"),
+                nameRow(4L, "Smart TV"),
+                nameRow(5L, "PC Gamers"));
+
+        Mockito.when(productRepository.findMaxId()).thenReturn(5L);
+        Mockito.when(productRepository.searchNameRows(any(), any())).thenReturn(names);
+
+        index = new ProductFuzzyIndex(productRepository, 2, 100);
+        index.rebuild();
+    }
+
+    @Test
+    public void searchShouldTolerateTypos() {
+        Page<Long> result = index.search("macbok", PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(1L), result.getContent());
+    }
+
+    @Test
+    public void searchShouldRequireEveryToken() {
+        Page<Long> result = index.search("gamr pc", PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(3L), result.getContent());
+    }
+
+    @Test
+    public void searchShouldRankCloserMatchesFirstAndPage() {
+        Assertions.assertEquals(List.of(3L, 5L), index.search("gamer", PageRequest.of(0, 10)).getContent());
+
+        Page<Long> second = index.search("gamer", PageRequest.of(1, 1));
+        Assertions.assertEquals(List.of(5L), second.getContent());
+        Assertions.assertEquals(2L, second.getTotalElements());
+    }
+
+    @Test
+    public void searchShouldReturnEmptyPageWhenNothingIsClose() {
+        Assertions.assertTrue(index.search("zzzz", PageRequest.of(0, 10)).isEmpty());
+        Assertions.assertTrue(index.search("  ", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    public void removeShouldDropProductFromResults() {
+        index.remove(3L);
+
+        Assertions.assertEquals(List.of(5L), index.search("gamer", PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    public void distanceShouldStopAtBound() {
+        Assertions.assertEquals(1, ProductFuzzyIndex.distance("macbok", "macbook", 2));
+        Assertions.assertEquals(3, ProductFuzzyIndex.distance("abcdef", "uvwxyz", 2));
+    }
+
+    @Test
+    public void rebuildShouldKeepChangesMadeWhileLoading() {
+        Mockito.when(productRepository.searchNameRows(any(), any())).thenAnswer(invocation -> {
+            index.remove(1L);
+            return List.of(nameRow(1L, "Macbook Pro"), nameRow(2L, "Mac Mini"));
+        });
+
+        index.rebuild();
+
+        Assertions.assertTrue(index.search("macbook", PageRequest.of(0, 10)).isEmpty());
+        Assertions.assertEquals(List.of(2L), index.search("mini", PageRequest.of(0, 10)).getContent());
+    }
+
+    private static ProductNameProjection nameRow(Long id, String name) {
+        ProductNameProjection row = Mockito.mock(ProductNameProjection.class);
+        Mockito.when(row.getId()).thenReturn(id);
+        Mockito.when(row.getName()).thenReturn(name);
+        return row;
+    }
+}
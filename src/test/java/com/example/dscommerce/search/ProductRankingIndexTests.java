@@ -0,0 +1,87 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.projections.ProductTextProjection;
+import com.example.dscommerce.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class ProductRankingIndexTests {
+
+    private ProductRankingIndex index;
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = Mockito.mock(ProductRepository.class);
+
+        List<ProductTextProjection> rows = List.of(
+                textRow(1L, "PC Gamer", "Gaming computer with fast graphics"),
+                textRow(2L, "Gamer Chair", "Comfortable chair for a pc gamer setup"),
+                textRow(3L, "Macbook Pro", "Laptop for work"),
+                textRow(4L, "Office Chair", "Chair"));
+
+        Mockito.when(productRepository.findMaxId()).thenReturn(4L);
+        Mockito.when(productRepository.searchTextRows(any(), any())).thenReturn(rows);
+
+        index = new ProductRankingIndex(productRepository, 3.0, 100);
+        index.rebuild();
+    }
+
+    @Test
+    public void searchShouldRankNameMatchesFirst() {
+        Page<Long> result = index.search("pc gamer", PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(1L, 2L), result.getContent());
+        Assertions.assertEquals(2L, result.getTotalElements());
+    }
+
+    @Test
+    public void searchShouldFavorShorterDocuments() {
+        Assertions.assertEquals(List.of(4L, 2L), index.search("chair", PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    public void searchShouldPageThroughRankedResults() {
+        Page<Long> result = index.search("chair", PageRequest.of(1, 1));
+
+        Assertions.assertEquals(List.of(2L), result.getContent());
+        Assertions.assertEquals(2L, result.getTotalElements());
+        Assertions.assertTrue(index.search("chair", PageRequest.of(2, 1)).getContent().isEmpty());
+    }
+
+    @Test
+    public void removeShouldDropProductFromResults() {
+        index.remove(4L);
+
+        Assertions.assertEquals(List.of(2L), index.search("chair", PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    public void rebuildShouldKeepChangesMadeWhileLoading() {
+        Mockito.when(productRepository.searchTextRows(any(), any())).thenAnswer(invocation -> {
+            index.remove(3L);
+            return List.of(textRow(3L, "Macbook Pro", "Laptop for work"), textRow(4L, "Office Chair", "Chair"));
+        });
+
+        index.rebuild();
+
+        Assertions.assertTrue(index.search("macbook", PageRequest.of(0, 10)).isEmpty());
+        Assertions.assertEquals(List.of(4L), index.search("chair", PageRequest.of(0, 10)).getContent());
+    }
+
+    private static ProductTextProjection textRow(Long id, String name, String description) {
+        ProductTextProjection row = Mockito.mock(ProductTextProjection.class);
+        Mockito.when(row.getId()).thenReturn(id);
+        Mockito.when(row.getName()).thenReturn(name);
+        Mockito.when(row.getDescription()).thenReturn(description);
+        return row;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.projections.OrderProductProjection;
+import com.example.dscommerce.repositories.OrderRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class ProductRelatedIndexTests {
+
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = Mockito.mock(OrderRepository.class);
+    }
+
+    @Test
+    public void relatedShouldRankProductsBoughtTogetherMostOften() {
+        ProductRelatedIndex index = buildIndex(List.of(
+                basketRow(1L, 1L), basketRow(1L, 2L), basketRow(1L, 3L),
+                basketRow(2L, 1L), basketRow(2L, 2L),
+                basketRow(3L, 1L), basketRow(3L, 4L)), 2);
+
+        Assertions.assertEquals(List.of(2L, 3L), index.related(1L, 10));
+        Assertions.assertEquals(List.of(2L), index.related(1L, 1));
+        Assertions.assertEquals(List.of(1L), index.related(4L, 10));
+        Assertions.assertTrue(index.related(5L, 10).isEmpty());
+    }
+
+    @Test
+    public void addBasketShouldPromoteProductsIncrementally() {
+        ProductRelatedIndex index = buildIndex(List.of(
+                basketRow(1L, 1L), basketRow(1L, 2L), basketRow(1L, 3L),
+                basketRow(2L, 1L), basketRow(2L, 2L)), 2);
+
+        index.addBasket(3L, new long[]{1L, 4L});
+        index.addBasket(4L, new long[]{1L, 4L});
+        index.addBasket(5L, new long[]{1L, 4L});
+
+        Assertions.assertEquals(List.of(4L, 2L), index.related(1L, 10));
+    }
+
+    @Test
+    public void rebuildShouldKeepBasketsAndRemovalsMadeWhileLoading() {
+        ProductRelatedIndex index = new ProductRelatedIndex(orderRepository, 10, 100000);
+        Mockito.when(orderRepository.findMaxId()).thenReturn(2L);
+        Mockito.when(orderRepository.searchBasketRows(any(), any())).thenAnswer(invocation -> {
+            index.addBasket(2L, new long[]{1L, 2L});
+            index.addBasket(3L, new long[]{1L, 4L});
+            index.addBasket(4L, new long[]{1L, 4L});
+            index.removeProduct(3L);
+            return List.of(
+                    basketRow(1L, 1L), basketRow(1L, 2L), basketRow(1L, 3L),
+                    basketRow(2L, 1L), basketRow(2L, 2L));
+        });
+
+        index.rebuild();
+
+        Assertions.assertEquals(List.of(2L, 4L), index.related(1L, 10));
+        Assertions.assertEquals(List.of(1L), index.related(2L, 10));
+        Assertions.assertTrue(index.related(3L, 10).isEmpty());
+    }
+
+    @Test
+    public void rebuildShouldMergeCountsAcrossParallelTasks() {
+        List<OrderProductProjection> rows = new ArrayList<>();
+        long orderId = 1;
+        for (int i = 0; i < 2000; i++, orderId++) {
+            rows.add(basketRow(orderId, 1L));
+            rows.add(basketRow(orderId, 2L));
+        }
+        for (int i = 0; i < 2500; i++, orderId++) {
+            rows.add(basketRow(orderId, 1L));
+            rows.add(basketRow(orderId, 3L));
+        }
+        ProductRelatedIndex index = buildIndex(rows, 10);
+
+        Assertions.assertEquals(List.of(3L, 2L), index.related(1L, 10));
+    }
+
+    private ProductRelatedIndex buildIndex(List<OrderProductProjection> rows, int topK) {
+        Long maxOrderId = rows.getLast().getOrderId();
+        Mockito.when(orderRepository.findMaxId()).thenReturn(maxOrderId);
+        Mockito.when(orderRepository.searchBasketRows(any(), any())).thenReturn(rows);
+        ProductRelatedIndex index = new ProductRelatedIndex(orderRepository, topK, 100000);
+        index.rebuild();
+        return index;
+    }
+
+    private static OrderProductProjection basketRow(Long orderId, Long productId) {
+        OrderProductProjection row = Mockito.mock(OrderProductProjection.class);
+        Mockito.when(row.getOrderId()).thenReturn(orderId);
+        Mockito.when(row.getProductId()).thenReturn(productId);
+        return row;
+    }
+}
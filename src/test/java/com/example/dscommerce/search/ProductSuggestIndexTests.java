@@ -0,0 +1,162 @@
+package com.example.dscommerce.search;
+
+import com.example.dscommerce.dto.ProductDTO;
+import com.example.dscommerce.dto.ProductSuggestionDTO;
+import com.example.dscommerce.entities.Product;
+import com.example.dscommerce.projections.ProductNameProjection;
+import com.example.dscommerce.projections.ProductQuantityProjection;
+import com.example.dscommerce.repositories.OrderItemRepository;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.BadRequestException;
+import com.example.dscommerce.tests.ProductFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class ProductSuggestIndexTests {
+
+    private ProductRepository productRepository;
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = Mockito.mock(ProductRepository.class);
+        OrderItemRepository orderItemRepository = Mockito.mock(OrderItemRepository.class);
+
+        List<ProductNameProjection> names = List.of(
+                nameRow(1L, "PC Gamer"),
+                nameRow(2L, "PC Gamer Pro"),
+                nameRow(3L, "Macbook Pro"),
+                nameRow(4L, "Pão de Queijo"));
+        List<ProductQuantityProjection> sold = List.of(quantityRow(2L, 10L), quantityRow(3L, 5L));
+
+        Mockito.when(productRepository.findMaxId()).thenReturn(4L);
+        Mockito.when(productRepository.searchNameRows(any(), any())).thenReturn(names);
+        Mockito.when(orderItemRepository.searchQuantitySoldPerProduct()).thenReturn(sold);
+
+        index = new ProductSuggestIndex(productRepository, orderItemRepository, 2, 100);
+        index.rebuild();
+    }
+
+    @Test
+    public void suggestShouldReturnMostPopularProductsFirst() {
+        List<ProductSuggestionDTO> result = index.suggest("p", 10);
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(2L, result.get(0).getId());
+        Assertions.assertEquals(3L, result.get(1).getId());
+    }
+
+    @Test
+    public void suggestShouldIgnoreCaseAndAccents() {
+        List<ProductSuggestionDTO> result = index.suggest("PAO", 10);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(4L, result.getFirst().getId());
+    }
+
+    @Test
+    public void suggestShouldRequirePreviousTokens() {
+        List<ProductSuggestionDTO> result = index.suggest("mac p", 10);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(3L, result.getFirst().getId());
+    }
+
+    @Test
+    public void suggestShouldReturnEmptyListWhenPrefixDoesNotExist() {
+        Assertions.assertTrue(index.suggest("xyz", 10).isEmpty());
+        Assertions.assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void removeShouldRefillTopSuggestions() {
+        index.remove(2L);
+
+        List<ProductSuggestionDTO> result = index.suggest("p", 10);
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(3L, result.get(0).getId());
+        Assertions.assertEquals(1L, result.get(1).getId());
+    }
+
+    @Test
+    public void putShouldReplaceNameAndKeepPopularity() {
+        Product product = ProductFactory.createProduct("Notebook Pro");
+        product.setId(3L);
+        index.put(new ProductDTO(product));
+
+        Assertions.assertTrue(index.suggest("mac", 10).isEmpty());
+        Assertions.assertEquals(3L, index.suggest("note", 10).getFirst().getId());
+        Assertions.assertEquals(3L, index.suggest("p", 10).get(1).getId());
+    }
+
+    @Test
+    public void suggestShouldFindMatchesOutsideTopSuggestionsWhenPreviousTokensGiven() {
+        List<ProductSuggestionDTO> result = index.suggest("queijo p", 10);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(4L, result.getFirst().getId());
+    }
+
+    @Test
+    public void addSalesShouldPromoteProductInSuggestions() {
+        index.addSales(Map.of(1L, 20L));
+
+        List<ProductSuggestionDTO> result = index.suggest("p", 10);
+
+        Assertions.assertEquals(1L, result.get(0).getId());
+        Assertions.assertEquals(2L, result.get(1).getId());
+    }
+
+    @Test
+    public void rebuildShouldKeepChangesMadeWhileLoading() {
+        List<ProductNameProjection> names = List.of(nameRow(1L, "PC Gamer"), nameRow(3L, "Macbook Pro"));
+        Mockito.when(productRepository.searchNameRows(any(), any())).thenAnswer(invocation -> {
+            Product product = ProductFactory.createProduct("Pen Drive");
+            product.setId(5L);
+            index.put(new ProductDTO(product));
+            index.remove(3L);
+            index.addSales(Map.of(5L, 50L));
+            return names;
+        });
+
+        index.rebuild();
+
+        List<ProductSuggestionDTO> result = index.suggest("p", 10);
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(5L, result.get(0).getId());
+        Assertions.assertEquals(1L, result.get(1).getId());
+    }
+
+    @Test
+    public void suggestShouldClampLimitToTopK() {
+        Assertions.assertEquals(2, index.suggest("p", 10).size());
+        Assertions.assertEquals(1, index.suggest("p", 1).size());
+    }
+
+    @Test
+    public void suggestShouldThrowBadRequestExceptionWhenLimitIsNotPositive() {
+        Assertions.assertThrows(BadRequestException.class, () -> index.suggest("p", 0));
+    }
+
+    private static ProductNameProjection nameRow(Long id, String name) {
+        ProductNameProjection row = Mockito.mock(ProductNameProjection.class);
+        Mockito.when(row.getId()).thenReturn(id);
+        Mockito.when(row.getName()).thenReturn(name);
+        return row;
+    }
+
+    private static ProductQuantityProjection quantityRow(Long productId, Long quantity) {
+        ProductQuantityProjection row = Mockito.mock(ProductQuantityProjection.class);
+        Mockito.when(row.getProductId()).thenReturn(productId);
+        Mockito.when(row.getQuantity()).thenReturn(quantity);
+        return row;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.dscommerce.services;
 
+import com.example.dscommerce.catalog.CatalogSnapshotStore;
 import com.example.dscommerce.dto.CategoryDTO;
 import com.example.dscommerce.entities.Category;
 import com.example.dscommerce.repositories.CategoryRepository;
@@ -12,6 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,6 +27,12 @@ public class CategoryServiceTests {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CatalogSnapshotStore catalogSnapshotStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private Category category;
     private List<Category> listCategory;
 
@@ -45,4 +53,15 @@ public class CategoryServiceTests {
         Assertions.assertEquals(category.getId(), result.getFirst().getId());
         Assertions.assertEquals(category.getName(), result.getFirst().getName());
     }
+
+    @Test
+    public void findAllShouldReadSnapshotWithoutTransactionWhenEnabled() {
+        Mockito.when(catalogSnapshotStore.isEnabled()).thenReturn(true);
+        Mockito.when(catalogSnapshotStore.findAllCategories()).thenReturn(List.of(new CategoryDTO(category)));
+
+        List<CategoryDTO> result = categoryService.findAll();
+
+        Assertions.assertEquals(category.getId(), result.getFirst().getId());
+        Mockito.verifyNoInteractions(transactionManager, categoryRepository);
+    }
 }
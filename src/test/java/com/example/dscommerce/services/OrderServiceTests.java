@@ -1,13 +1,30 @@
 package com.example.dscommerce.services;
 
+import com.example.dscommerce.archive.OrderArchive;
+import com.example.dscommerce.dto.BulkStatusUpdateResultDTO;
+import com.example.dscommerce.dto.ClientDTO;
 import com.example.dscommerce.dto.OrderDTO;
+import com.example.dscommerce.dto.OrderStatusBulkDTO;
+import com.example.dscommerce.dto.OrderStatusDTO;
+import com.example.dscommerce.dto.PaymentDTO;
 import com.example.dscommerce.entities.Order;
 import com.example.dscommerce.entities.OrderItem;
+import com.example.dscommerce.entities.OrderStatus;
+import com.example.dscommerce.entities.Payment;
 import com.example.dscommerce.entities.Product;
 import com.example.dscommerce.entities.User;
+import com.example.dscommerce.events.OrderStatusChangedEvent;
+import com.example.dscommerce.inventory.StockReservation;
+import com.example.dscommerce.inventory.StockService;
+import com.example.dscommerce.projections.OrderClientProjection;
+import com.example.dscommerce.projections.OrderStatusProjection;
+import com.example.dscommerce.projections.ProductQuantityProjection;
 import com.example.dscommerce.repositories.OrderItemRepository;
 import com.example.dscommerce.repositories.OrderRepository;
+import com.example.dscommerce.repositories.PaymentRepository;
 import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.ConflictException;
+import com.example.dscommerce.services.exceptions.BadRequestException;
 import com.example.dscommerce.services.exceptions.ForbiddenException;
 import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
 import com.example.dscommerce.tests.OrderFactory;
@@ -17,13 +34,20 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -46,11 +70,27 @@ public class OrderServiceTests {
     @Mock
     private OrderItemRepository orderItemRepository;
 
+    @Mock
+    private PaymentRepository paymentRepository;
+
     @Mock
     private UserService userService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OrderArchive orderArchive;
+
     private Long existingOrderId;
     private Long nonExistingOrderId;
+    private Long archivedOrderId;
     private Long existingProductId;
     private Long nonExistingProductId;
     private Order order;
@@ -63,6 +103,7 @@ public class OrderServiceTests {
     void setup() {
         existingOrderId = 1L;
         nonExistingOrderId = 100L;
+        archivedOrderId = 50L;
         existingProductId = 1L;
         nonExistingProductId = 100L;
 
@@ -75,10 +116,17 @@ public class OrderServiceTests {
 
         Mockito.when(orderRepository.findById(existingOrderId)).thenReturn(Optional.of(order));
         Mockito.when(orderRepository.findById(nonExistingOrderId)).thenReturn(Optional.empty());
+        Mockito.when(orderRepository.findById(archivedOrderId)).thenReturn(Optional.empty());
+        Mockito.when(orderArchive.findById(nonExistingOrderId)).thenReturn(Optional.empty());
+        Mockito.when(orderArchive.findById(archivedOrderId)).thenReturn(Optional.of(new OrderDTO(archivedOrderId,
+                Instant.parse("2020-01-01T10:00:00Z"), OrderStatus.DELIVERED, new ClientDTO(client), null, 9050L)));
         Mockito.when(productRepository.getReferenceById(existingProductId)).thenReturn(product);
         Mockito.when(productRepository.getReferenceById(nonExistingProductId)).thenThrow(ResourceNotFoundException.class);
         Mockito.when(orderRepository.save(any())).thenReturn(order);
         Mockito.when(orderItemRepository.saveAll(any())).thenReturn(new ArrayList<>(order.getItems()));
+        Mockito.when(stockService.reserve(any())).thenReturn(StockReservation.empty());
+        Mockito.when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -112,6 +160,23 @@ public class OrderServiceTests {
         Assertions.assertThrows(ResourceNotFoundException.class, () -> orderService.findById(nonExistingOrderId));
     }
 
+    @Test
+    public void findByIdShouldReturnArchivedOrderDTOWhenOrderWasArchivedAndSelfClientLogged() {
+        Mockito.doNothing().when(authService).validateSelfOrAdmin(client.getId());
+        OrderDTO result = orderService.findById(archivedOrderId);
+
+        Assertions.assertEquals(archivedOrderId, result.getId());
+        Assertions.assertEquals(9050L, result.getTotal());
+        Mockito.verify(authService).validateSelfOrAdmin(client.getId());
+    }
+
+    @Test
+    public void findByIdShouldThrowForbiddenExceptionWhenOrderWasArchivedAndOtherClientLogged() {
+        Mockito.doThrow(ForbiddenException.class).when(authService).validateSelfOrAdmin(any());
+
+        Assertions.assertThrows(ForbiddenException.class, () -> orderService.findById(archivedOrderId));
+    }
+
     @Test
     public void insertShouldReturnOrderDTOWhenAdminLogged() {
         Mockito.when(userService.authenticated()).thenReturn(admin);
@@ -130,6 +195,19 @@ public class OrderServiceTests {
         Assertions.assertEquals(existingProductId, result.getItems().getFirst().getProductId());
     }
 
+    @Test
+    public void insertShouldStoreTotalAndItemCountOnOrder() {
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+
+        OrderDTO result = orderService.insert(orderDTO);
+
+        Mockito.verify(orderRepository).save(captor.capture());
+        Assertions.assertEquals(79800L, captor.getValue().getTotal());
+        Assertions.assertEquals(1, captor.getValue().getItemCount());
+        Assertions.assertEquals(79800L, result.getTotal());
+    }
+
     @Test
     public void insertShouldThrowsUsernameNotFoundExceptionWhenClientNotLogged() {
         Mockito.doThrow(UsernameNotFoundException.class).when(userService).authenticated();
@@ -143,11 +221,239 @@ public class OrderServiceTests {
     public void insertShouldThrowsResourceNotFoundExceptionWhenOrderProductIdDoesNotExist() {
         Mockito.when(userService.authenticated()).thenReturn(client);
         product.setId(nonExistingProductId);
-        OrderItem orderItem = new OrderItem(order, product, 2, 10.0);
+        OrderItem orderItem = new OrderItem(order, product, 2, 1000L);
         order.getItems().add(orderItem);
 
         orderDTO = new OrderDTO(order);
 
         Assertions.assertThrows(ResourceNotFoundException.class, () -> orderService.insert(orderDTO));
     }
+
+    @Test
+    public void insertShouldReserveAggregatedQuantitiesBeforePlacingOrder() {
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        orderDTO.getItems().add(orderDTO.getItems().getFirst());
+
+        orderService.insert(orderDTO);
+
+        Mockito.verify(stockService).reserve(Map.of(existingProductId, 4));
+    }
+
+    @Test
+    public void insertShouldReleaseReservationWhenOrderCannotBePlaced() {
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        StockReservation reservation = Mockito.mock(StockReservation.class);
+        Mockito.when(stockService.reserve(any())).thenReturn(reservation);
+        Mockito.when(orderRepository.save(any())).thenThrow(IllegalStateException.class);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> orderService.insert(orderDTO));
+        Mockito.verify(reservation).release();
+    }
+
+    @Test
+    public void insertShouldNotPlaceOrderWhenStockIsInsufficient() {
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        Mockito.when(stockService.reserve(any())).thenThrow(ConflictException.class);
+
+        Assertions.assertThrows(ConflictException.class, () -> orderService.insert(orderDTO));
+        Mockito.verify(orderRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    public void updateStatusShouldReturnIncrementedVersionWhenTransitionIsValid() {
+        Mockito.when(orderRepository.findStatusById(existingOrderId)).thenReturn(Optional.of(statusOf(OrderStatus.PAID, 3L)));
+        Mockito.when(orderRepository.updateStatus(existingOrderId, OrderStatus.PAID, 3L, OrderStatus.SHIPPED)).thenReturn(1);
+
+        OrderStatusDTO result = orderService.updateStatus(existingOrderId, new OrderStatusDTO(null, OrderStatus.SHIPPED, 3L));
+
+        Assertions.assertEquals(OrderStatus.SHIPPED, result.getStatus());
+        Assertions.assertEquals(4L, result.getVersion());
+    }
+
+    @Test
+    public void updateStatusShouldThrowConflictExceptionWhenTransitionIsInvalid() {
+        Mockito.when(orderRepository.findStatusById(existingOrderId)).thenReturn(Optional.of(statusOf(OrderStatus.DELIVERED, 0L)));
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> orderService.updateStatus(existingOrderId, new OrderStatusDTO(null, OrderStatus.PAID, null)));
+        Mockito.verify(orderRepository, Mockito.never()).updateStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    public void updateStatusShouldThrowConflictExceptionWhenVersionIsStale() {
+        Mockito.when(orderRepository.findStatusById(existingOrderId)).thenReturn(Optional.of(statusOf(OrderStatus.PAID, 2L)));
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> orderService.updateStatus(existingOrderId, new OrderStatusDTO(null, OrderStatus.SHIPPED, 1L)));
+    }
+
+    @Test
+    public void updateStatusShouldThrowConflictExceptionWhenOrderChangedConcurrently() {
+        Mockito.when(orderRepository.findStatusById(existingOrderId)).thenReturn(Optional.of(statusOf(OrderStatus.PAID, 0L)));
+        Mockito.when(orderRepository.updateStatus(existingOrderId, OrderStatus.PAID, 0L, OrderStatus.CANCELED)).thenReturn(0);
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> orderService.updateStatus(existingOrderId, new OrderStatusDTO(null, OrderStatus.CANCELED, null)));
+    }
+
+    @Test
+    public void updateStatusShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
+        Mockito.when(orderRepository.findStatusById(nonExistingOrderId)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> orderService.updateStatus(nonExistingOrderId, new OrderStatusDTO(null, OrderStatus.CANCELED, null)));
+    }
+
+    @Test
+    public void updateStatusesShouldOnlyMoveOrdersFromAllowedStatuses() {
+        List<Long> ids = List.of(1L, 2L, 3L);
+        Mockito.when(orderRepository.lockIdsInStatuses(ids, List.of(OrderStatus.PAID))).thenReturn(List.of(1L, 2L));
+        Mockito.when(orderRepository.updateStatuses(List.of(1L, 2L), List.of(OrderStatus.PAID), OrderStatus.SHIPPED)).thenReturn(2);
+        Mockito.when(orderRepository.searchClientIds(List.of(1L, 2L))).thenReturn(List.of(clientOf(1L, 7L), clientOf(2L, 8L)));
+
+        BulkStatusUpdateResultDTO result = orderService.updateStatuses(new OrderStatusBulkDTO(List.of(1L, 2L, 3L, 1L), OrderStatus.SHIPPED));
+
+        Assertions.assertEquals(2, result.getUpdated());
+        Assertions.assertEquals(List.of(3L), result.getRejected());
+        ArgumentCaptor<OrderStatusChangedEvent> events = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(2)).publishEvent(events.capture());
+        Assertions.assertEquals(List.of(7L, 8L), events.getAllValues().stream().map(OrderStatusChangedEvent::getClientId).toList());
+    }
+
+    @Test
+    public void updateStatusesShouldRejectIdsOfUnknownOrders() {
+        List<Long> ids = List.of(1L, 4L);
+        Mockito.when(orderRepository.lockIdsInStatuses(ids, List.of(OrderStatus.PAID))).thenReturn(List.of(1L));
+        Mockito.when(orderRepository.updateStatuses(List.of(1L), List.of(OrderStatus.PAID), OrderStatus.SHIPPED)).thenReturn(1);
+
+        BulkStatusUpdateResultDTO result = orderService.updateStatuses(new OrderStatusBulkDTO(ids, OrderStatus.SHIPPED));
+
+        Assertions.assertEquals(1, result.getUpdated());
+        Assertions.assertEquals(List.of(4L), result.getRejected());
+    }
+
+    @Test
+    public void updateStatusesShouldReturnStockOfCanceledOrders() {
+        List<Long> ids = List.of(1L, 2L);
+        List<OrderStatus> allowed = List.of(OrderStatus.WAITING_PAYMENT, OrderStatus.PAID);
+        Mockito.when(orderRepository.lockIdsInStatuses(ids, allowed)).thenReturn(List.of(1L));
+        Mockito.when(orderRepository.updateStatuses(List.of(1L), allowed, OrderStatus.CANCELED)).thenReturn(1);
+        Mockito.when(orderItemRepository.searchQuantityPerProductByOrderIds(List.of(1L))).thenReturn(List.of(quantityOf(existingProductId, 2L)));
+
+        orderService.updateStatuses(new OrderStatusBulkDTO(ids, OrderStatus.CANCELED));
+
+        Mockito.verify(productRepository).incrementStock(existingProductId, 2L);
+    }
+
+    @Test
+    public void updateStatusesShouldNotTouchOrdersAlreadyMovedByAnotherRequest() {
+        List<Long> ids = List.of(1L);
+        List<OrderStatus> allowed = List.of(OrderStatus.WAITING_PAYMENT, OrderStatus.PAID);
+        Mockito.when(orderRepository.lockIdsInStatuses(ids, allowed)).thenReturn(List.of());
+
+        BulkStatusUpdateResultDTO result = orderService.updateStatuses(new OrderStatusBulkDTO(ids, OrderStatus.CANCELED));
+
+        Assertions.assertEquals(0, result.getUpdated());
+        Assertions.assertEquals(ids, result.getRejected());
+        Mockito.verify(orderRepository, Mockito.never()).updateStatuses(any(), any(), any());
+        Mockito.verify(orderItemRepository, Mockito.never()).searchQuantityPerProductByOrderIds(any());
+        Mockito.verify(eventPublisher, Mockito.never()).publishEvent(any());
+    }
+
+    @Test
+    public void updateStatusShouldReturnStockWhenOrderIsCanceled() {
+        Mockito.when(orderRepository.findStatusById(existingOrderId)).thenReturn(Optional.of(statusOf(OrderStatus.PAID, 0L)));
+        Mockito.when(orderRepository.updateStatus(existingOrderId, OrderStatus.PAID, 0L, OrderStatus.CANCELED)).thenReturn(1);
+        Mockito.when(orderItemRepository.searchQuantityPerProductByOrderIds(List.of(existingOrderId))).thenReturn(List.of(quantityOf(existingProductId, 2L)));
+
+        orderService.updateStatus(existingOrderId, new OrderStatusDTO(null, OrderStatus.CANCELED, null));
+
+        Mockito.verify(productRepository).incrementStock(existingProductId, 2L);
+    }
+
+    @Test
+    public void updateStatusesShouldThrowBadRequestExceptionWhenNoStatusLeadsToTarget() {
+        Assertions.assertThrows(BadRequestException.class,
+                () -> orderService.updateStatuses(new OrderStatusBulkDTO(List.of(1L), OrderStatus.WAITING_PAYMENT)));
+    }
+
+    @Test
+    public void registerPaymentShouldMarkOrderPaidWhenWaitingPayment() {
+        Instant moment = Instant.parse("2024-01-10T10:00:00Z");
+        Mockito.when(orderRepository.findStatusById(existingOrderId)).thenReturn(Optional.of(statusOf(OrderStatus.WAITING_PAYMENT, 0L)));
+        Mockito.when(orderRepository.updateStatus(existingOrderId, OrderStatus.WAITING_PAYMENT, 0L, OrderStatus.PAID)).thenReturn(1);
+        Mockito.when(orderRepository.getReferenceById(existingOrderId)).thenReturn(order);
+        Mockito.when(paymentRepository.save(any())).thenReturn(new Payment(existingOrderId, moment, order));
+
+        PaymentDTO result = orderService.registerPayment(existingOrderId, new PaymentDTO(null, moment));
+
+        Assertions.assertEquals(existingOrderId, result.getId());
+        Assertions.assertEquals(moment, result.getMoment());
+    }
+
+    @Test
+    public void registerPaymentShouldThrowConflictExceptionWhenOrderIsNotWaitingPayment() {
+        Mockito.when(orderRepository.findStatusById(existingOrderId)).thenReturn(Optional.of(statusOf(OrderStatus.PAID, 1L)));
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> orderService.registerPayment(existingOrderId, new PaymentDTO()));
+        Mockito.verify(paymentRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    public void registerPaymentShouldThrowConflictExceptionWhenOrderChangedConcurrently() {
+        Mockito.when(orderRepository.findStatusById(existingOrderId)).thenReturn(Optional.of(statusOf(OrderStatus.WAITING_PAYMENT, 0L)));
+        Mockito.when(orderRepository.updateStatus(existingOrderId, OrderStatus.WAITING_PAYMENT, 0L, OrderStatus.PAID)).thenReturn(0);
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> orderService.registerPayment(existingOrderId, new PaymentDTO()));
+        Mockito.verify(paymentRepository, Mockito.never()).save(any());
+    }
+
+    private OrderClientProjection clientOf(Long id, Long clientId) {
+        return new OrderClientProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getClientId() {
+                return clientId;
+            }
+        };
+    }
+
+    private ProductQuantityProjection quantityOf(Long productId, Long quantity) {
+        return new ProductQuantityProjection() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private OrderStatusProjection statusOf(OrderStatus status, Long version) {
+        return new OrderStatusProjection() {
+            @Override
+            public OrderStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+
+            @Override
+            public Long getClientId() {
+                return client.getId();
+            }
+        };
+    }
 }
@@ -0,0 +1,99 @@
+package com.example.dscommerce.services;
+
+import com.example.dscommerce.dto.BulkDeleteResultDTO;
+import com.example.dscommerce.dto.BulkUpdateResultDTO;
+import com.example.dscommerce.dto.CategoryMoveDTO;
+import com.example.dscommerce.dto.PriceAdjustmentDTO;
+import com.example.dscommerce.events.CatalogChangedEvent;
+import com.example.dscommerce.repositories.CategoryRepository;
+import com.example.dscommerce.repositories.OrderItemRepository;
+import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(SpringExtension.class)
+public class ProductBulkServiceTests {
+
+    @InjectMocks
+    private ProductBulkService productBulkService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private Long existingCategoryId;
+    private Long nonExistingCategoryId;
+
+    @BeforeEach
+    void setUp() {
+        existingCategoryId = 1L;
+        nonExistingCategoryId = 100L;
+
+        Mockito.when(categoryRepository.existsById(existingCategoryId)).thenReturn(true);
+        Mockito.when(categoryRepository.existsById(nonExistingCategoryId)).thenReturn(false);
+        Mockito.when(productRepository.adjustPricesByCategory(eq(existingCategoryId), any())).thenReturn(2);
+        Mockito.when(productRepository.deleteOtherCategories(1L, 10L, existingCategoryId)).thenReturn(3);
+        Mockito.when(productRepository.insertMissingCategory(1L, 10L, existingCategoryId)).thenReturn(4);
+        Mockito.when(orderItemRepository.searchReferencedProductIds(List.of(1L, 3L, 4L))).thenReturn(List.of(3L));
+        Mockito.when(productRepository.deleteUnreferenced(List.of(1L, 4L))).thenReturn(2);
+    }
+
+    @Test
+    public void adjustPricesShouldRunSingleStatementWithFactor() {
+        BulkUpdateResultDTO result = productBulkService.adjustPrices(new PriceAdjustmentDTO(existingCategoryId, new BigDecimal("5")));
+
+        Assertions.assertEquals(2, result.getUpdated());
+        Mockito.verify(productRepository).adjustPricesByCategory(existingCategoryId, new BigDecimal("1.05"));
+        Mockito.verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    @Test
+    public void adjustPricesShouldThrowResourceNotFoundExceptionWhenCategoryDoesNotExist() {
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> productBulkService.adjustPrices(new PriceAdjustmentDTO(nonExistingCategoryId, new BigDecimal("5"))));
+    }
+
+    @Test
+    public void moveToCategoryShouldReturnChangedMemberships() {
+        BulkUpdateResultDTO result = productBulkService.moveToCategory(new CategoryMoveDTO(1L, 10L, existingCategoryId));
+
+        Assertions.assertEquals(7, result.getUpdated());
+    }
+
+    @Test
+    public void moveToCategoryShouldThrowResourceNotFoundExceptionWhenCategoryDoesNotExist() {
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> productBulkService.moveToCategory(new CategoryMoveDTO(1L, 10L, nonExistingCategoryId)));
+    }
+
+    @Test
+    public void deleteShouldSkipReferencedProducts() {
+        BulkDeleteResultDTO result = productBulkService.delete(List.of(1L, 3L, 4L, 1L));
+
+        Assertions.assertEquals(2, result.getDeleted());
+        Assertions.assertEquals(List.of(3L), result.getReferenced());
+        Mockito.verify(productRepository).deleteUnreferencedCategories(List.of(1L, 4L));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.dscommerce.services;
+
+import com.example.dscommerce.entities.ProductSales;
+import com.example.dscommerce.repositories.ProductSalesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSalesCounterTests {
+
+    @InjectMocks
+    private ProductSalesCounter productSalesCounter;
+
+    @Mock
+    private ProductSalesRepository productSalesRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Mockito.doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        Mockito.when(productSalesRepository.addSales(any(), anyLong(), any())).thenReturn(1);
+    }
+
+    @Test
+    public void flushShouldWriteOnlySalesSinceLastFlush() {
+        productSalesCounter.add(1L, 2, 2000);
+        productSalesCounter.flush();
+        productSalesCounter.add(1L, 1, 1000);
+        productSalesCounter.flush();
+        productSalesCounter.flush();
+
+        Mockito.verify(productSalesRepository).addSales(1L, 2, new BigDecimal("20.00"));
+        Mockito.verify(productSalesRepository).addSales(1L, 1, new BigDecimal("10.00"));
+        Mockito.verify(productSalesRepository, Mockito.times(2)).addSales(any(), anyLong(), any());
+    }
+
+    @Test
+    public void flushShouldInsertSummaryRowWhenProductHasNone() {
+        Mockito.when(productSalesRepository.addSales(2L, 3, new BigDecimal("30.00"))).thenReturn(0);
+
+        productSalesCounter.add(2L, 3, 3000);
+        productSalesCounter.flush();
+
+        Mockito.verify(productSalesRepository).save(any(ProductSales.class));
+    }
+
+    @Test
+    public void flushShouldKeepSalesWhenWriteFails() {
+        Mockito.when(productSalesRepository.addSales(1L, 2, new BigDecimal("20.00")))
+                .thenThrow(DataAccessResourceFailureException.class)
+                .thenReturn(1);
+
+        productSalesCounter.add(1L, 2, 2000);
+        productSalesCounter.flush();
+        productSalesCounter.flush();
+
+        Mockito.verify(productSalesRepository, Mockito.times(2)).addSales(1L, 2, new BigDecimal("20.00"));
+    }
+}
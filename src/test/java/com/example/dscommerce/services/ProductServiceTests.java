@@ -1,9 +1,16 @@
 package com.example.dscommerce.services;
 
+import com.example.dscommerce.catalog.CatalogSnapshotStore;
 import com.example.dscommerce.dto.ProductDTO;
 import com.example.dscommerce.dto.ProductMinDTO;
 import com.example.dscommerce.entities.Product;
+import com.example.dscommerce.repositories.OrderItemRepository;
 import com.example.dscommerce.repositories.ProductRepository;
+import com.example.dscommerce.search.ProductFacetIndex;
+import com.example.dscommerce.search.ProductFuzzyIndex;
+import com.example.dscommerce.search.ProductRankingIndex;
+import com.example.dscommerce.search.ProductRelatedIndex;
+import com.example.dscommerce.search.ProductSuggestIndex;
 import com.example.dscommerce.services.exceptions.DatabaseException;
 import com.example.dscommerce.services.exceptions.ResourceNotFoundException;
 import com.example.dscommerce.tests.ProductFactory;
@@ -15,12 +22,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +45,33 @@ public class ProductServiceTests {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Mock
+    private ProductFuzzyIndex productFuzzyIndex;
+
+    @Mock
+    private ProductRankingIndex productRankingIndex;
+
+    @Mock
+    private ProductRelatedIndex productRelatedIndex;
+
+    @Mock
+    private CatalogSnapshotStore catalogSnapshotStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private long existingId;
     private long nonExistingId;
     private long dependentId;
@@ -61,11 +97,11 @@ public class ProductServiceTests {
         Mockito.when(productRepository.save(any())).thenReturn(product);
         Mockito.when(productRepository.getReferenceById(existingId)).thenReturn(product);
         Mockito.when(productRepository.getReferenceById(nonExistingId)).thenThrow(EntityNotFoundException.class);
-        Mockito.when(productRepository.existsById(existingId)).thenReturn(true);
-        Mockito.when(productRepository.existsById(dependentId)).thenReturn(true);
-        Mockito.when(productRepository.existsById(nonExistingId)).thenReturn(false);
-        Mockito.doNothing().when(productRepository).deleteById(existingId);
-        Mockito.doThrow(DataIntegrityViolationException.class).when(productRepository).deleteById(dependentId);
+        Mockito.when(orderItemRepository.existsByProductId(existingId)).thenReturn(false);
+        Mockito.when(orderItemRepository.existsByProductId(dependentId)).thenReturn(true);
+        Mockito.when(orderItemRepository.existsByProductId(nonExistingId)).thenReturn(false);
+        Mockito.when(productRepository.deleteUnreferenced(List.of(existingId))).thenReturn(1);
+        Mockito.when(productRepository.deleteUnreferenced(List.of(nonExistingId))).thenReturn(0);
     }
 
     @Test
@@ -97,6 +133,73 @@ public class ProductServiceTests {
         Assertions.assertEquals(0, result.getNumber());
     }
 
+    @Test
+    public void findAllShouldUseRankingIndexWhenSortedByRelevance() {
+        Pageable pageable = PageRequest.of(0, 12, Sort.by("relevance"));
+        Mockito.when(productRankingIndex.search(productName, pageable)).thenReturn(new PageImpl<>(List.of(existingId), pageable, 1));
+        Mockito.when(productRepository.findAllById(List.of(existingId))).thenReturn(List.of(product));
+
+        Page<ProductMinDTO> result = productService.findAll(productName, false, pageable);
+
+        Assertions.assertEquals(existingId, result.getContent().get(0).getId());
+        Mockito.verify(productRepository, Mockito.never()).searchByName(any(), any());
+    }
+
+    @Test
+    public void findAllShouldUseSnapshotWhenEnabled() {
+        Pageable pageable = PageRequest.of(0, 12);
+        Mockito.when(catalogSnapshotStore.isEnabled()).thenReturn(true);
+        Mockito.when(catalogSnapshotStore.findAll(productName, pageable)).thenReturn(new PageImpl<>(List.of(new ProductMinDTO(product))));
+
+        Page<ProductMinDTO> result = productService.findAll(productName, false, pageable);
+
+        Assertions.assertEquals(existingId, result.getContent().get(0).getId());
+        Mockito.verify(productRepository, Mockito.never()).searchByName(any(), any());
+        Mockito.verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void findByIdShouldReadSnapshotWithoutTransactionWhenEnabled() {
+        Mockito.when(catalogSnapshotStore.isEnabled()).thenReturn(true);
+        Mockito.when(catalogSnapshotStore.findById(existingId)).thenReturn(productDTO);
+
+        ProductDTO result = productService.findById(existingId);
+
+        Assertions.assertEquals(existingId, result.getId());
+        Mockito.verifyNoInteractions(transactionManager, productRepository);
+    }
+
+    @Test
+    public void findAllFuzzyShouldReturnProductsRankedByIndex() {
+        Pageable pageable = PageRequest.of(0, 12);
+        Mockito.when(productFuzzyIndex.search(productName, pageable)).thenReturn(new PageImpl<>(List.of(existingId), pageable, 1));
+        Mockito.when(productRepository.findAllById(List.of(existingId))).thenReturn(List.of(product));
+
+        Page<ProductMinDTO> result = productService.findAllFuzzy(productName, pageable);
+
+        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(existingId, result.getContent().get(0).getId());
+    }
+
+    @Test
+    public void findRelatedShouldReturnProductsInIndexOrder() {
+        Mockito.when(productRepository.existsById(existingId)).thenReturn(true);
+        Mockito.when(productRelatedIndex.related(existingId, 10)).thenReturn(List.of(existingId));
+        Mockito.when(productRepository.findAllById(List.of(existingId))).thenReturn(List.of(product));
+
+        List<ProductMinDTO> result = productService.findRelated(existingId, 10);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(existingId, result.getFirst().getId());
+    }
+
+    @Test
+    public void findRelatedShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
+        Mockito.when(productRepository.existsById(nonExistingId)).thenReturn(false);
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> productService.findRelated(nonExistingId, 10));
+    }
+
     @Test
     public void insertShouldReturnProductDTO() {
         ProductDTO result = productService.insert(productDTO);
@@ -6,7 +6,7 @@ import com.example.dscommerce.entities.Product;
 public class ProductFactory {
     public static Product createProduct() {
         Category category = CategoryFactory.createCategory();
-        Product product = new Product(1L, "Produto 1", "lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium", 399.0, "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg");
+        Product product = new Product(1L, "Produto 1", "lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium lorem ipsium", 39900L, "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg");
         product.getCategories().add(category);
         return product;
     }
@@ -0,0 +1,57 @@
+package com.example.dscommerce.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+public class CsvUtilTests {
+
+    @Test
+    public void readRecordShouldJoinQuotedFieldsSpanningLines() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("""
+                Produto,"primeira linha
+                segunda linha, com ""aspas\"\"",25.5
+                Outro,lorem,10
+                """));
+
+        List<String> first = CsvUtil.parseLine(CsvUtil.readRecord(reader));
+        List<String> second = CsvUtil.parseLine(CsvUtil.readRecord(reader));
+
+        Assertions.assertEquals(List.of("Produto", "primeira linha\nsegunda linha, com \"aspas\"", "25.5"), first);
+        Assertions.assertEquals(List.of("Outro", "lorem", "10"), second);
+        Assertions.assertNull(CsvUtil.readRecord(reader));
+    }
+
+    @Test
+    public void readRecordShouldReadBackEscapedValues() throws IOException {
+        String value = "a, \"b\"\nc";
+        BufferedReader reader = new BufferedReader(new StringReader(CsvUtil.escape(value) + ",x\n"));
+
+        Assertions.assertEquals(List.of(value, "x"), CsvUtil.parseLine(CsvUtil.readRecord(reader)));
+    }
+
+    @Test
+    public void parseLineShouldThrowIllegalArgumentExceptionWhenQuoteIsUnterminated() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("Produto,\"lorem\nipsum,25.5\n"));
+
+        String record = CsvUtil.readRecord(reader);
+
+        Assertions.assertEquals("Produto,\"lorem\nipsum,25.5", record);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CsvUtil.parseLine(record));
+    }
+
+    @Test
+    public void readRecordShouldStopJoiningLinesWhenQuoteStaysOpenTooLong() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("Produto,\"lorem\n" + "ipsum\n".repeat(150)));
+
+        String record = CsvUtil.readRecord(reader);
+
+        Assertions.assertEquals(100, record.split("\n").length);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CsvUtil.parseLine(record));
+        Assertions.assertEquals("ipsum", CsvUtil.readRecord(reader));
+    }
+}